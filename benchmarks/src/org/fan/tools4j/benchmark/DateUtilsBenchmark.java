@@ -0,0 +1,87 @@
+package org.fan.tools4j.benchmark;
+
+import org.fan.tools4j.core.lang.DateUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtils：格式化、解析、日历计算
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    public int time = 1697700000;
+
+    public long millis = 1697700000123L;
+
+    public String date = "2023-10-19";
+
+    public String dateTime = "2023-10-19 15:20:00";
+
+    public LocalDate localDate = LocalDate.of(2023, 10, 19);
+
+    @Benchmark
+    public String getFormatDate() {
+        return DateUtils.getFormatDate(millis, "yyyyMMdd");
+    }
+
+    @Benchmark
+    public String getFormatDate_default() {
+        return DateUtils.getFormatDate(time);
+    }
+
+    @Benchmark
+    public int toUnixTime_date() {
+        return DateUtils.toUnixTime(date);
+    }
+
+    @Benchmark
+    public int toUnixTime_dateTime() {
+        return DateUtils.toUnixTime(dateTime, "yyyy-MM-dd HH:mm:ss");
+    }
+
+    @Benchmark
+    public int toUnixTime_localDate() {
+        return DateUtils.toUnixTime(localDate);
+    }
+
+    @Benchmark
+    public LocalDate parseLocalDate() {
+        return DateUtils.parseLocalDate(time);
+    }
+
+    @Benchmark
+    public int getDate() {
+        return DateUtils.getDate(time);
+    }
+
+    @Benchmark
+    public int addMonths() {
+        return DateUtils.addMonths(time, 1);
+    }
+
+    @Benchmark
+    public int addDays() {
+        return DateUtils.addDays(time, 1);
+    }
+
+    @Benchmark
+    public int getLastDayTime() {
+        return DateUtils.getLastDayTime(time);
+    }
+}
@@ -0,0 +1,114 @@
+package org.fan.tools4j.benchmark;
+
+import org.fan.tools4j.core.lang.LongArrayList;
+import org.fan.tools4j.core.lang.LongHashSet;
+import org.fan.tools4j.core.lang.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基本类型集合 vs 装箱集合：每次调用放入SIZE个雪花ID（@OperationsPerInvocation），
+ * GC分析结果 gc.alloc.rate.norm 即每个元素分配的字节数（含扩容）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LongCollectionsBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    private long[] ids;
+
+    @Setup
+    public void setup() {
+        // 模拟雪花ID：时间位左移22位 + 机器位 + 序列
+        ids = new long[SIZE];
+        long time = 276_000_000_000L;
+        for (int i = 0; i < SIZE; i++) {
+            if (i % 4096 == 0) {
+                time++;
+            }
+            ids[i] = (time << 22) | (1L << 12) | (i % 4096);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public LongArrayList longArrayList() {
+        LongArrayList list = new LongArrayList();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public List<Long> boxedArrayList() {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public LongHashSet longHashSet() {
+        LongHashSet set = new LongHashSet();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public Set<Long> boxedHashSet() {
+        Set<Long> set = new HashSet<>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public LongLongHashMap longLongHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long id : ids) {
+            map.put(id, id);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public Map<Long, Long> boxedHashMap() {
+        Map<Long, Long> map = new HashMap<>();
+        for (long id : ids) {
+            map.put(id, id);
+        }
+        return map;
+    }
+}
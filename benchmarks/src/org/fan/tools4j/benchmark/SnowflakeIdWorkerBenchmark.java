@@ -0,0 +1,75 @@
+package org.fan.tools4j.benchmark;
+
+import org.fan.tools4j.core.distributed.SnowflakeIdWorker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * nextId/nextSn吞吐量：多线程共享一个生成器（synchronized），不同位数设置
+ * 毫秒12位序列上限约409.6万/秒，超出后在tilNextTime中自旋等待
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnowflakeIdWorkerBenchmark {
+
+    /**
+     * workerIdBits,datacenterIdBits,sequenceBits,timeUnit
+     */
+    @Param({"5,5,12,MILLISECONDS", "8,2,12,MILLISECONDS", "10,0,8,MILLISECONDS", "8,2,22,SECONDS"})
+    public String layout;
+
+    private SnowflakeIdWorker idWorker;
+
+    @Setup
+    public void setup() {
+        String[] bits = layout.split(",");
+        idWorker = new SnowflakeIdWorker(1, 1).doSetBits(Long.parseLong(bits[0]), Long.parseLong(bits[1]),
+                Long.parseLong(bits[2]), TimeUnit.valueOf(bits[3]));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long nextId() {
+        return idWorker.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long nextId_4threads() {
+        return idWorker.nextId();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long nextId_maxThreads() {
+        return idWorker.nextId();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String nextSn() {
+        return idWorker.nextSn();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextSn_4threads() {
+        return idWorker.nextSn();
+    }
+}
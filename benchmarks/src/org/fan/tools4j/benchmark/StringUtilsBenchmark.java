@@ -0,0 +1,120 @@
+package org.fan.tools4j.benchmark;
+
+import org.fan.tools4j.core.lang.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringUtils：校验、编码、定长、随机串
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+    public String integer = "-1234567890";
+
+    public String decimal = "-12345.6789";
+
+    public String email = "fantools4j.bench@example.com";
+
+    public String url = "https://user@www.example.com:8443/path/to/page?query=1";
+
+    public String xml = "<item name=\"a&b\">it's > 0</item>";
+
+    public String regex = "price: $1.00 (approx.) [USD]*";
+
+    public String text = "The quick brown fox jumps over the lazy dog";
+
+    public long number = 4096L;
+
+    private final StringBuilder sb = new StringBuilder(64);
+
+    @Benchmark
+    public boolean isInteger() {
+        return StringUtils.isInteger(integer);
+    }
+
+    @Benchmark
+    public boolean isDouble() {
+        return StringUtils.isDouble(decimal);
+    }
+
+    @Benchmark
+    public boolean isEmail() {
+        return StringUtils.isEmail(email);
+    }
+
+    @Benchmark
+    public String getWebSite() {
+        return StringUtils.getWebSite(url);
+    }
+
+    @Benchmark
+    public String xmlEncode() {
+        return StringUtils.xmlEncode(xml);
+    }
+
+    @Benchmark
+    public String xmlDecode() {
+        return StringUtils.xmlDecode("&lt;item name=&quot;a&amp;b&quot;&gt;");
+    }
+
+    @Benchmark
+    public String htmlEncode() {
+        return StringUtils.htmlEncode(xml);
+    }
+
+    @Benchmark
+    public String escapeRegex() {
+        return StringUtils.escapeRegex(regex);
+    }
+
+    @Benchmark
+    public int toAscii() {
+        return StringUtils.toAscii(text);
+    }
+
+    @Benchmark
+    public String toReverse() {
+        return StringUtils.toReverse(text);
+    }
+
+    @Benchmark
+    public String toEllipsis() {
+        return StringUtils.toEllipsis(text, 20);
+    }
+
+    @Benchmark
+    public String toFixedLength() {
+        return StringUtils.toFixedLength(String.valueOf(number), 20, '0');
+    }
+
+    @Benchmark
+    public String toFixedLength_long() {
+        return StringUtils.toFixedLength(number, 20, '0');
+    }
+
+    @Benchmark
+    public StringBuilder appendFixedLength_long() {
+        sb.setLength(0);
+        return StringUtils.appendFixedLength(sb, number, 20, -1, '0');
+    }
+
+    @Benchmark
+    public String randomString() {
+        return StringUtils.randomString(16);
+    }
+}
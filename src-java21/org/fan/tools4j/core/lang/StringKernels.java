@@ -0,0 +1,41 @@
+package org.fan.tools4j.core.lang;
+
+/**
+ * @Title: StringKernels.java
+ *
+ * @Description: Java 21 version of StringKernels (META-INF/versions/21).
+ * Uses VectorKernels when the jdk.incubator.vector module is present (--add-modules jdk.incubator.vector)
+ * and not disabled by -Dfantools4j.vector=false, otherwise falls back to ScalarKernels.
+ */
+public final class StringKernels {
+
+	private static final boolean VECTORIZED = !"false".equals(System.getProperty("fantools4j.vector"))
+			&& ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+	private StringKernels() {
+	}
+
+	public static boolean isVectorized() {
+		return VECTORIZED;
+	}
+
+	public static int sum(char[] a, int from, int to) {
+		return VECTORIZED ? VectorKernels.sum(a, from, to) : ScalarKernels.sum(a, from, to);
+	}
+
+	public static void reverse(char[] a, int from, int to) {
+		if (VECTORIZED) {
+			VectorKernels.reverse(a, from, to);
+		} else {
+			ScalarKernels.reverse(a, from, to);
+		}
+	}
+
+	public static int indexOfAny(char[] a, int from, int to, char[] chars) {
+		return VECTORIZED ? VectorKernels.indexOfAny(a, from, to, chars) : ScalarKernels.indexOfAny(a, from, to, chars);
+	}
+
+	public static boolean allInRange(char[] a, int from, int to, char low, char high) {
+		return VECTORIZED ? VectorKernels.allInRange(a, from, to, low, high) : ScalarKernels.allInRange(a, from, to, low, high);
+	}
+}
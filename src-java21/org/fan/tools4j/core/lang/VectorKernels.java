@@ -0,0 +1,102 @@
+package org.fan.tools4j.core.lang;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * @Title: VectorKernels.java
+ *
+ * @Description: jdk.incubator.vector implementation of StringKernels, chars are loaded as unsigned short lanes.
+ * Tails shorter than one vector are handled by ScalarKernels.
+ */
+final class VectorKernels {
+
+	private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+
+	/**
+	 * same bit size as SHORTS: half the lanes
+	 */
+	private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, SHORTS.vectorShape());
+
+	private static final VectorShuffle<Short> REVERSE = VectorShuffle.fromOp(SHORTS, i -> SHORTS.length() - 1 - i);
+
+	/**
+	 * more chars to compare than this: one vector compare per char no longer pays off
+	 */
+	private static final int MAX_ANY_CHARS = 16;
+
+	private VectorKernels() {
+	}
+
+	static int sum(char[] a, int from, int to) {
+		int step = SHORTS.length();
+		int bound = from + SHORTS.loopBound(to - from);
+		IntVector acc = IntVector.zero(INTS);
+		int i = from;
+		for (; i < bound; i += step) {
+			ShortVector v = ShortVector.fromCharArray(SHORTS, a, i);
+			acc = acc.add(v.convertShape(VectorOperators.ZERO_EXTEND_S2I, INTS, 0))
+					.add(v.convertShape(VectorOperators.ZERO_EXTEND_S2I, INTS, 1));
+		}
+		return acc.reduceLanes(VectorOperators.ADD) + ScalarKernels.sum(a, i, to);
+	}
+
+	static void reverse(char[] a, int from, int to) {
+		int step = SHORTS.length();
+		int i = from;
+		int j = to;
+		// 首尾各取一个向量，反转后交换
+		while (j - i >= 2 * step) {
+			ShortVector head = ShortVector.fromCharArray(SHORTS, a, i);
+			ShortVector tail = ShortVector.fromCharArray(SHORTS, a, j - step);
+			tail.rearrange(REVERSE).intoCharArray(a, i);
+			head.rearrange(REVERSE).intoCharArray(a, j - step);
+			i += step;
+			j -= step;
+		}
+		ScalarKernels.reverse(a, i, j);
+	}
+
+	static int indexOfAny(char[] a, int from, int to, char[] chars) {
+		if (chars.length == 0 || chars.length > MAX_ANY_CHARS) {
+			return ScalarKernels.indexOfAny(a, from, to, chars);
+		}
+		int step = SHORTS.length();
+		int bound = from + SHORTS.loopBound(to - from);
+		int i = from;
+		for (; i < bound; i += step) {
+			ShortVector v = ShortVector.fromCharArray(SHORTS, a, i);
+			VectorMask<Short> mask = v.eq((short) chars[0]);
+			for (int k = 1; k < chars.length; k++) {
+				mask = mask.or(v.eq((short) chars[k]));
+			}
+			if (mask.anyTrue()) {
+				return i + mask.firstTrue();
+			}
+		}
+		return ScalarKernels.indexOfAny(a, i, to, chars);
+	}
+
+	static boolean allInRange(char[] a, int from, int to, char low, char high) {
+		if (low > high) {
+			return from >= to;
+		}
+		int step = SHORTS.length();
+		int bound = from + SHORTS.loopBound(to - from);
+		short shift = (short) low;
+		short width = (short) (high - low);
+		int i = from;
+		for (; i < bound; i += step) {
+			// c in [low, high] <=> (c - low) unsigned <= high - low
+			ShortVector v = ShortVector.fromCharArray(SHORTS, a, i).sub(shift);
+			if (v.compare(VectorOperators.UNSIGNED_GT, width).anyTrue()) {
+				return false;
+			}
+		}
+		return ScalarKernels.allInRange(a, i, to, low, high);
+	}
+}
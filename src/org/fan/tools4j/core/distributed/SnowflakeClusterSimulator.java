@@ -0,0 +1,574 @@
+package org.fan.tools4j.core.distributed;
+
+import org.fan.tools4j.core.lang.LongArrayList;
+import org.fan.tools4j.core.lang.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内ID集群模拟：多个ID生成器（可配置不同位数设置）由多线程并发取号，
+ * 共享一个可控时钟（真实流逝时间 + 可调偏移），并周期注入时钟回退与序列耗尽突发。
+ * <p>
+ * 结束后校验：全局唯一（LongHashSet）、每个生成器按发号顺序严格递增（跨线程）、ID中的机器位与生成器一致；
+ * 并统计吞吐量、取号等待时间分位数、"Clock moved backwards"拒绝次数，用于上线前评估容量。
+ * <p>
+ * 时钟基于真实流逝时间，回退和冻结都会随时间自然恢复，取号线程不会永久自旋。
+ */
+public class SnowflakeClusterSimulator {
+
+    private static final String BACKWARDS_MESSAGE = "Clock moved backwards";
+    /**
+     * 构造函数按默认5位校验机器ID
+     */
+    private static final long MAX_MACHINE_BITS = 5L;
+
+    private final SimulatedClock clock = new SimulatedClock();
+    private final List<SimulatedWorker> workers = new ArrayList<>();
+    /**
+     * 已占用的(workerId, datacenterId)，同一机器ID的两个生成器必然产生重复ID
+     */
+    private final LongHashSet machineIds = new LongHashSet();
+    /**
+     * addWorkers下一个分配的机器序号
+     */
+    private int nextMachine;
+    private int threadsPerWorker = 1;
+    private int idsPerThread = 10000;
+    /**
+     * 时钟回退：每隔backwardIntervalMillis交替回退backwardMillis、恢复（时钟最多落后backwardMillis）
+     */
+    private long backwardMillis;
+    private long backwardIntervalMillis;
+    /**
+     * 序列耗尽突发：每隔burstIntervalMillis冻结时钟burstMillis，期间各生成器序列用尽后阻塞
+     */
+    private long burstMillis;
+    private long burstIntervalMillis;
+    /**
+     * 被拒绝后重试前的等待时间
+     */
+    private long retryMillis = 1L;
+
+    /**
+     * 添加一组相同位数设置的ID生成器，机器ID跨组连续分配（先workerId，满后进位到datacenterId），跳过已占用的机器ID，
+     * 与构造函数一致，workerId|datacenterId不超过31
+     * @param count
+     * @param workerIdBits
+     * @param datacenterIdBits
+     * @param sequenceBits
+     * @param timeUnit
+     * @return this
+     */
+    public SnowflakeClusterSimulator addWorkers(int count, long workerIdBits, long datacenterIdBits, long sequenceBits, TimeUnit timeUnit) {
+        long workerIds = 1L << Math.min(workerIdBits, MAX_MACHINE_BITS);
+        for (int i = 0; i < count; i++) {
+            while (machineIds.contains(machineKey(nextMachine % workerIds, nextMachine / workerIds))) {
+                nextMachine++;
+            }
+            addWorker(nextMachine % workerIds, nextMachine / workerIds, workerIdBits, datacenterIdBits, sequenceBits, timeUnit);
+            nextMachine++;
+        }
+        return this;
+    }
+
+    /**
+     * 添加指定机器ID的ID生成器
+     * @param workerId
+     * @param datacenterId
+     * @param workerIdBits
+     * @param datacenterIdBits
+     * @param sequenceBits
+     * @param timeUnit
+     * @return this
+     * @throws IllegalArgumentException 机器ID已被其他生成器占用
+     */
+    public SnowflakeClusterSimulator addWorker(long workerId, long datacenterId, long workerIdBits, long datacenterIdBits, long sequenceBits, TimeUnit timeUnit) {
+        if (machineIds.contains(machineKey(workerId, datacenterId))) {
+            throw new IllegalArgumentException(String.format("worker Id %d and datacenter Id %d are already used", workerId, datacenterId));
+        }
+        if (sequenceBits == 0) {
+            sequenceBits = timeUnit == TimeUnit.MILLISECONDS ? 12L : 22L;
+        }
+        SimulatedWorker worker = new SimulatedWorker(clock, workerId, datacenterId, workerIdBits, datacenterIdBits, sequenceBits);
+        worker.doSetBits(workerIdBits, datacenterIdBits, sequenceBits, timeUnit);
+        workers.add(worker);
+        machineIds.add(machineKey(workerId, datacenterId));
+        return this;
+    }
+
+    private static long machineKey(long workerId, long datacenterId) {
+        return datacenterId << 32 | workerId;
+    }
+
+    public SnowflakeClusterSimulator threadsPerWorker(int threadsPerWorker) {
+        if (threadsPerWorker <= 0) {
+            throw new IllegalArgumentException("threads per worker must be greater than 0: " + threadsPerWorker);
+        }
+        this.threadsPerWorker = threadsPerWorker;
+        return this;
+    }
+
+    public SnowflakeClusterSimulator idsPerThread(int idsPerThread) {
+        if (idsPerThread <= 0) {
+            throw new IllegalArgumentException("ids per thread must be greater than 0: " + idsPerThread);
+        }
+        this.idsPerThread = idsPerThread;
+        return this;
+    }
+
+    /**
+     * 注入时钟回退（不超过5毫秒|秒时生成器休眠等待，超出则拒绝），回退与恢复交替进行
+     * @param backwardMillis 每次回退时间
+     * @param intervalMillis 注入间隔
+     * @return this
+     */
+    public SnowflakeClusterSimulator backwardJump(long backwardMillis, long intervalMillis) {
+        checkFault(backwardMillis, intervalMillis);
+        this.backwardMillis = backwardMillis;
+        this.backwardIntervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * 注入序列耗尽突发：冻结时钟
+     * @param burstMillis 每次冻结时间
+     * @param intervalMillis 注入间隔
+     * @return this
+     */
+    public SnowflakeClusterSimulator exhaustionBurst(long burstMillis, long intervalMillis) {
+        checkFault(burstMillis, intervalMillis);
+        this.burstMillis = burstMillis;
+        this.burstIntervalMillis = intervalMillis;
+        return this;
+    }
+
+    public SnowflakeClusterSimulator retryMillis(long retryMillis) {
+        if (retryMillis < 0) {
+            throw new IllegalArgumentException("retry millis can't be less than 0: " + retryMillis);
+        }
+        this.retryMillis = retryMillis;
+        return this;
+    }
+
+    private static void checkFault(long millis, long intervalMillis) {
+        if (millis <= 0 || intervalMillis <= 0) {
+            throw new IllegalArgumentException(String.format("fault millis and interval must be greater than 0: %d, %d", millis, intervalMillis));
+        }
+    }
+
+    /**
+     * 运行模拟（阻塞到所有线程取号结束）
+     * @return
+     * @throws InterruptedException
+     */
+    public Report run() throws InterruptedException {
+        if (workers.isEmpty()) {
+            throw new IllegalStateException("no worker is added");
+        }
+        int threadCount = workers.size() * threadsPerWorker;
+        CountDownLatch ready = new CountDownLatch(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        Client[] clients = new Client[threadCount];
+        for (SimulatedWorker worker : workers) {
+            worker.startRecording(threadsPerWorker * idsPerThread);
+        }
+        for (int i = 0; i < threadCount; i++) {
+            Client client = new Client(workers.get(i / threadsPerWorker), idsPerThread, retryMillis, ready, start, done);
+            clients[i] = client;
+            Thread thread = new Thread(client, "snowflake-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        ready.await();
+        FaultInjector injector = new FaultInjector(clock, done, backwardMillis, backwardIntervalMillis, burstMillis, burstIntervalMillis);
+        Thread injectorThread = new Thread(injector, "snowflake-fault-injector");
+        injectorThread.setDaemon(true);
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        injectorThread.start();
+        done.await();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        injectorThread.join();
+        return verify(clients, elapsedNanos, injector);
+    }
+
+    private Report verify(Client[] clients, long elapsedNanos, FaultInjector injector) {
+        long total = (long) clients.length * idsPerThread;
+        LongHashSet ids = new LongHashSet((int) total);
+        LongArrayList waits = new LongArrayList((int) total);
+        long duplicates = 0, machineMismatches = 0, rejections = 0;
+        for (Client client : clients) {
+            if (client.error != null) {
+                throw new IllegalStateException("client failed: " + client.worker, client.error);
+            }
+            rejections += client.rejections;
+            waits.addAll(client.waits);
+            for (int i = 0, n = client.ids.size(); i < n; i++) {
+                long id = client.ids.get(i);
+                if (!ids.add(id)) {
+                    duplicates++;
+                }
+                if (!client.worker.owns(id)) {
+                    machineMismatches++;
+                }
+            }
+        }
+        // 按生成器的发号顺序校验：同一生成器的多个线程之间也必须严格递增
+        long[] orderViolations = new long[workers.size()];
+        for (int w = 0; w < orderViolations.length; w++) {
+            LongArrayList issued = workers.get(w).issued;
+            for (int i = 1, n = issued.size(); i < n; i++) {
+                if (issued.get(i) <= issued.get(i - 1)) {
+                    orderViolations[w]++;
+                }
+            }
+        }
+        waits.sort();
+        return new Report(workers.size(), clients.length, total, elapsedNanos, waits, rejections, duplicates,
+                orderViolations, machineMismatches, injector.backwardJumps, injector.bursts);
+    }
+
+    /**
+     * 可控时钟：真实时间 + 偏移，冻结期间返回冻结时刻的值
+     */
+    static final class SimulatedClock {
+
+        private volatile long offset;
+        private volatile long frozenValue;
+        private volatile long frozenUntil;
+
+        long millis() {
+            long now = System.currentTimeMillis();
+            return now < frozenUntil ? frozenValue : now + offset;
+        }
+
+        /**
+         * 已回退时恢复，否则回退（偏移不累积，时钟不会越来越慢）
+         * @param millis
+         * @return true：本次为回退
+         */
+        synchronized boolean toggleBackward(long millis) {
+            offset = offset == 0 ? -millis : 0;
+            return offset != 0;
+        }
+
+        synchronized void freeze(long millis) {
+            frozenValue = millis();
+            frozenUntil = System.currentTimeMillis() + millis;
+        }
+    }
+
+    static final class SimulatedWorker extends SnowflakeIdWorker {
+
+        private final SimulatedClock clock;
+        /**
+         * (datacenterId, workerId)在ID中的位置
+         */
+        private final long machineShift;
+        private final long machineMask;
+        private final long machineId;
+        /**
+         * 按发号顺序记录的ID（在nextId的锁内追加）
+         */
+        private LongArrayList issued = new LongArrayList();
+
+        SimulatedWorker(SimulatedClock clock, long workerId, long datacenterId, long workerIdBits, long datacenterIdBits, long sequenceBits) {
+            super(workerId, datacenterId);
+            this.clock = clock;
+            this.machineShift = sequenceBits;
+            this.machineMask = -1L ^ (-1L << (workerIdBits + datacenterIdBits));
+            this.machineId = datacenterId << workerIdBits | workerId;
+        }
+
+        /**
+         * @param id
+         * @return ID中的机器位是否为本生成器
+         */
+        boolean owns(long id) {
+            return ((id >> machineShift) & machineMask) == machineId;
+        }
+
+        synchronized void startRecording(int capacity) {
+            issued = new LongArrayList(capacity);
+        }
+
+        /**
+         * 与父类同一把锁，记录顺序即发号顺序
+         */
+        @Override
+        public synchronized long nextId() {
+            long id = super.nextId();
+            issued.add(id);
+            return id;
+        }
+
+        @Override
+        protected long timeGen() {
+            return clock.millis();
+        }
+    }
+
+    /**
+     * 取号线程
+     */
+    private static final class Client implements Runnable {
+
+        private final SimulatedWorker worker;
+        private final int count;
+        private final long retryNanos;
+        private final CountDownLatch ready;
+        private final CountDownLatch start;
+        private final CountDownLatch done;
+        private final LongArrayList ids;
+        private final LongArrayList waits;
+        private long rejections;
+        private volatile Throwable error;
+
+        Client(SimulatedWorker worker, int count, long retryMillis, CountDownLatch ready, CountDownLatch start, CountDownLatch done) {
+            this.worker = worker;
+            this.count = count;
+            this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMillis);
+            this.ready = ready;
+            this.start = start;
+            this.done = done;
+            this.ids = new LongArrayList(count);
+            this.waits = new LongArrayList(count);
+        }
+
+        @Override
+        public void run() {
+            try {
+                ready.countDown();
+                start.await();
+                for (int i = 0; i < count; i++) {
+                    long begin = System.nanoTime();
+                    ids.add(nextId());
+                    waits.add(System.nanoTime() - begin);
+                }
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        /**
+         * 时钟回退被拒绝时等待后重试，等待时间计入本次取号
+         */
+        private long nextId() {
+            while (true) {
+                try {
+                    return worker.nextId();
+                } catch (RuntimeException e) {
+                    if (e.getMessage() == null || !e.getMessage().startsWith(BACKWARDS_MESSAGE)) {
+                        throw e;
+                    }
+                    rejections++;
+                    LockSupport.parkNanos(retryNanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * 故障注入线程：按各自间隔注入，直到取号结束
+     */
+    private static final class FaultInjector implements Runnable {
+
+        private final SimulatedClock clock;
+        private final CountDownLatch done;
+        private final long backwardMillis;
+        private final long backwardIntervalMillis;
+        private final long burstMillis;
+        private final long burstIntervalMillis;
+        private volatile int backwardJumps;
+        private volatile int bursts;
+
+        FaultInjector(SimulatedClock clock, CountDownLatch done, long backwardMillis, long backwardIntervalMillis,
+                      long burstMillis, long burstIntervalMillis) {
+            this.clock = clock;
+            this.done = done;
+            this.backwardMillis = backwardMillis;
+            this.backwardIntervalMillis = backwardIntervalMillis;
+            this.burstMillis = burstMillis;
+            this.burstIntervalMillis = burstIntervalMillis;
+        }
+
+        @Override
+        public void run() {
+            if (backwardIntervalMillis <= 0 && burstIntervalMillis <= 0) {
+                return;
+            }
+            long begin = System.currentTimeMillis();
+            long nextBackward = backwardIntervalMillis > 0 ? begin + backwardIntervalMillis : Long.MAX_VALUE;
+            long nextBurst = burstIntervalMillis > 0 ? begin + burstIntervalMillis : Long.MAX_VALUE;
+            try {
+                while (!done.await(Math.max(1L, Math.min(nextBackward, nextBurst) - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                    long now = System.currentTimeMillis();
+                    if (now >= nextBackward) {
+                        if (clock.toggleBackward(backwardMillis)) {
+                            backwardJumps++;
+                        }
+                        nextBackward = now + backwardIntervalMillis;
+                    }
+                    if (now >= nextBurst) {
+                        clock.freeze(burstMillis);
+                        bursts++;
+                        nextBurst = now + burstIntervalMillis;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 模拟结果
+     */
+    public static final class Report {
+
+        private final int workers;
+        private final int threads;
+        private final long ids;
+        private final long elapsedNanos;
+        /**
+         * 已排序的取号等待时间（纳秒）
+         */
+        private final LongArrayList waits;
+        private final long rejections;
+        private final long duplicates;
+        /**
+         * 各生成器的发号乱序次数（下标同添加顺序）
+         */
+        private final long[] orderViolations;
+        private final long machineMismatches;
+        private final int backwardJumps;
+        private final int bursts;
+
+        Report(int workers, int threads, long ids, long elapsedNanos, LongArrayList waits, long rejections, long duplicates,
+               long[] orderViolations, long machineMismatches, int backwardJumps, int bursts) {
+            this.workers = workers;
+            this.threads = threads;
+            this.ids = ids;
+            this.elapsedNanos = elapsedNanos;
+            this.waits = waits;
+            this.rejections = rejections;
+            this.duplicates = duplicates;
+            this.orderViolations = orderViolations;
+            this.machineMismatches = machineMismatches;
+            this.backwardJumps = backwardJumps;
+            this.bursts = bursts;
+        }
+
+        /**
+         * @return 无重复、各生成器发号有序、机器位一致
+         */
+        public boolean isValid() {
+            return duplicates == 0 && getOrderViolations() == 0 && machineMismatches == 0;
+        }
+
+        /**
+         * @return 每秒生成ID数
+         */
+        public double getThroughput() {
+            return ids * 1e9D / Math.max(1L, elapsedNanos);
+        }
+
+        /**
+         * @param percentile (0, 100]
+         * @return 取号等待时间（纳秒）
+         */
+        public long getWaitNanos(double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be in (0, 100]: " + percentile);
+            }
+            int index = (int) Math.ceil(percentile / 100D * waits.size()) - 1;
+            return waits.get(Math.max(0, index));
+        }
+
+        public int getWorkers() {
+            return workers;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public long getIds() {
+            return ids;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getRejections() {
+            return rejections;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * @return 所有生成器的发号乱序次数之和
+         */
+        public long getOrderViolations() {
+            long sum = 0;
+            for (long violations : orderViolations) {
+                sum += violations;
+            }
+            return sum;
+        }
+
+        /**
+         * @param worker 生成器下标（添加顺序）
+         * @return 该生成器的发号乱序次数
+         */
+        public long getOrderViolations(int worker) {
+            return orderViolations[worker];
+        }
+
+        public long getMachineMismatches() {
+            return machineMismatches;
+        }
+
+        public int getBackwardJumps() {
+            return backwardJumps;
+        }
+
+        public int getBursts() {
+            return bursts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Report{workers=%d, threads=%d, ids=%d, elapsed=%dms, throughput=%.0f/s, "
+                            + "wait(us) p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f, "
+                            + "rejections=%d, duplicates=%d, orderViolations=%s, machineMismatches=%d, backwardJumps=%d, bursts=%d}",
+                    workers, threads, ids, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput(),
+                    getWaitNanos(50) / 1e3D, getWaitNanos(90) / 1e3D, getWaitNanos(99) / 1e3D, getWaitNanos(99.9) / 1e3D,
+                    getWaitNanos(100) / 1e3D, rejections, duplicates, Arrays.toString(orderViolations), machineMismatches, backwardJumps, bursts);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Report report = new SnowflakeClusterSimulator()
+                .addWorkers(4, 5, 5, 12, TimeUnit.MILLISECONDS)
+                .addWorkers(2, 8, 2, 12, TimeUnit.SECONDS)
+                .threadsPerWorker(4)
+                .idsPerThread(2000)
+                .backwardJump(10, 20)
+                .exhaustionBurst(5, 50)
+                .run();
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,437 @@
+package org.fan.tools4j.core.distributed;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 幂等过滤器：按雪花ID去重（时间窗口内），数据存放在堆外内存（DirectByteBuffer），不增加GC压力
+ * <p>
+ * 按ID内嵌的时间戳分桶（getIdTimeMillis，与ID生成器位数设置一致），桶组成环形数组：
+ * 新的时间桶到来时整桶清空复用，过期数据整体丢弃，无需逐条淘汰。
+ * <ul>
+ * <li>EXACT：精确模式，每桶为开放寻址的long哈希表，每条约10.7~21.3字节</li>
+ * <li>BLOOM：概率模式，每桶为分块布隆过滤器（一个块64字节=一个缓存行），存在误判（重复），不会漏判</li>
+ * </ul>
+ * 线程安全：桶内分段加锁，清空桶时独占该桶。
+ */
+public class SnowflakeIdFilter {
+
+    public enum Mode {
+        EXACT, BLOOM
+    }
+
+    /**
+     * 2^64 / 黄金分割比，打散ID低位（序列|机器位）
+     */
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    /**
+     * 桶内分段锁个数
+     */
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final byte[] ZEROS = new byte[64 * 1024];
+    /**
+     * ID时间最多超前当前时钟的时间（容忍机器间时钟偏差），更晚的ID视为非法：否则会把时间环推到未来，窗口内的正常ID全部被拒
+     */
+    private static final long MAX_FUTURE_MILLIS = 5000L;
+
+    private final SnowflakeIdWorker layout;
+    private final Mode mode;
+    /**
+     * 每个桶的时间跨度
+     */
+    private final long bucketMillis;
+    private final Bucket[] buckets;
+    /**
+     * 见过的最新时间桶序号
+     */
+    private final AtomicLong newestSlot = new AtomicLong(Long.MIN_VALUE);
+
+    private SnowflakeIdFilter(SnowflakeIdWorker layout, Mode mode, long window, TimeUnit unit, int bucketCount,
+                              int expectedIdsPerBucket, double fpp) {
+        if (bucketCount < 2) {
+            throw new IllegalArgumentException("bucket count can't be less than 2: " + bucketCount);
+        }
+        if (expectedIdsPerBucket <= 0) {
+            throw new IllegalArgumentException("expected ids per bucket must be greater than 0: " + expectedIdsPerBucket);
+        }
+        long windowMillis = unit.toMillis(window);
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("window must be greater than 0 ms: " + window + " " + unit);
+        }
+        this.layout = layout;
+        this.mode = mode;
+        // 存活桶数为bucketCount，最新桶未满，保证至少覆盖window：(bucketCount-1)个整桶
+        this.bucketMillis = (windowMillis + bucketCount - 2) / (bucketCount - 1);
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = mode == Mode.EXACT ? new ExactBucket(expectedIdsPerBucket) : new BloomBucket(expectedIdsPerBucket, fpp);
+        }
+    }
+
+    /**
+     * 精确模式
+     * @param layout 生成ID的位数设置（用于解析ID时间）
+     * @param window 去重时间窗口
+     * @param unit
+     * @param bucketCount 桶个数（>=2），越多过期粒度越细
+     * @param expectedIdsPerBucket 每个桶的预计ID数，每段留有余量，远超时抛IllegalStateException
+     * @return
+     */
+    public static SnowflakeIdFilter exact(SnowflakeIdWorker layout, long window, TimeUnit unit, int bucketCount, int expectedIdsPerBucket) {
+        return new SnowflakeIdFilter(layout, Mode.EXACT, window, unit, bucketCount, expectedIdsPerBucket, 0D);
+    }
+
+    /**
+     * 布隆过滤器模式
+     * @param layout 生成ID的位数设置（用于解析ID时间）
+     * @param window 去重时间窗口
+     * @param unit
+     * @param bucketCount 桶个数（>=2），越多过期粒度越细
+     * @param expectedIdsPerBucket 每个桶的预计ID数
+     * @param fpp 误判率 (0, 1)
+     * @return
+     */
+    public static SnowflakeIdFilter bloom(SnowflakeIdWorker layout, long window, TimeUnit unit, int bucketCount, int expectedIdsPerBucket, double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        }
+        return new SnowflakeIdFilter(layout, Mode.BLOOM, window, unit, bucketCount, expectedIdsPerBucket, fpp);
+    }
+
+    /**
+     * 记录ID
+     * @param id
+     * @return true：窗口内首次出现（已记录）；false：重复（BLOOM模式可能误判）或早于时间窗口
+     * @throws IllegalArgumentException ID为负数，或ID时间超前当前时钟MAX_FUTURE_MILLIS以上（不推进时间环）
+     */
+    public boolean add(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("snowflake id can't be less than 0: " + id);
+        }
+        long idTime = layout.getIdTimeMillis(id);
+        if (idTime - System.currentTimeMillis() > MAX_FUTURE_MILLIS) {
+            throw new IllegalArgumentException(String.format("snowflake id is in the future: %d, time %d", id, idTime));
+        }
+        long slot = Math.floorDiv(idTime, bucketMillis);
+        long newest = advance(slot);
+        // 早于时间窗口：无法判断，视为重复
+        if (slot <= newest - buckets.length) {
+            return false;
+        }
+        Bucket bucket = buckets[(int) Math.floorMod(slot, (long) buckets.length)];
+        ReentrantReadWriteLock.ReadLock readLock = bucket.lock.readLock();
+        readLock.lock();
+        try {
+            if (bucket.slot != slot) {
+                // 桶已被更新的时间占用
+                if (bucket.slot > slot) {
+                    return false;
+                }
+                // 过期桶：独占后整桶清空，再降级为读锁
+                readLock.unlock();
+                bucket.lock.writeLock().lock();
+                try {
+                    if (bucket.slot < slot) {
+                        bucket.clear();
+                        bucket.slot = slot;
+                    }
+                    readLock.lock();
+                } finally {
+                    bucket.lock.writeLock().unlock();
+                }
+                if (bucket.slot != slot) {
+                    return false;
+                }
+            }
+            return bucket.add(id);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @param id
+     * @return 窗口内是否出现过（不记录）
+     */
+    public boolean contains(long id) {
+        long slot = Math.floorDiv(layout.getIdTimeMillis(id), bucketMillis);
+        if (slot <= newestSlot.get() - buckets.length) {
+            return false;
+        }
+        Bucket bucket = buckets[(int) Math.floorMod(slot, (long) buckets.length)];
+        bucket.lock.readLock().lock();
+        try {
+            return bucket.slot == slot && bucket.contains(id);
+        } finally {
+            bucket.lock.readLock().unlock();
+        }
+    }
+
+    private long advance(long slot) {
+        long newest = newestSlot.get();
+        while (slot > newest) {
+            if (newestSlot.compareAndSet(newest, slot)) {
+                return slot;
+            }
+            newest = newestSlot.get();
+        }
+        return newest;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * @return 保证覆盖的去重窗口
+     */
+    public long getWindowMillis() {
+        return bucketMillis * (buckets.length - 1);
+    }
+
+    /**
+     * @return 占用的堆外内存
+     */
+    public long getOffHeapBytes() {
+        long bytes = 0;
+        for (Bucket bucket : buckets) {
+            bytes += bucket.data.capacity();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "SnowflakeIdFilter{" +
+                "mode=" + mode +
+                ", buckets=" + buckets.length +
+                ", bucketMillis=" + bucketMillis +
+                ", offHeapBytes=" + getOffHeapBytes() +
+                '}';
+    }
+
+    private static int tableBits(long slots) {
+        int bits = 3;
+        while ((1L << bits) < slots) {
+            bits++;
+        }
+        return bits;
+    }
+
+    private static long mix64(long h) {
+        // murmur3 fmix64
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private abstract static class Bucket {
+        /**
+         * 清空/占用桶：写锁；读写桶内数据：读锁+分段锁
+         */
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final ReentrantLock[] segmentLocks = new ReentrantLock[SEGMENTS];
+        final ByteBuffer data;
+        /**
+         * 当前存放的时间桶序号
+         */
+        long slot = Long.MIN_VALUE;
+
+        Bucket(long bytes) {
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("bucket is too large: " + bytes + " bytes");
+            }
+            this.data = ByteBuffer.allocateDirect((int) bytes);
+            for (int i = 0; i < SEGMENTS; i++) {
+                segmentLocks[i] = new ReentrantLock();
+            }
+        }
+
+        void clear() {
+            ByteBuffer buf = data.duplicate();
+            buf.clear();
+            while (buf.hasRemaining()) {
+                buf.put(ZEROS, 0, Math.min(ZEROS.length, buf.remaining()));
+            }
+        }
+
+        abstract boolean add(long id);
+
+        abstract boolean contains(long id);
+    }
+
+    /**
+     * 精确模式：按哈希高位分段，每段为线性探测的long表，存储id+1（0表示空）
+     */
+    private static final class ExactBucket extends Bucket {
+        private final int slotBits;
+        private final int slotMask;
+        /**
+         * 每段最多存放的ID数（负载因子7/8，按0.75分配，余量吸收各段间的哈希波动）
+         */
+        private final int maxPerSegment;
+        private final int[] counts = new int[SEGMENTS];
+
+        ExactBucket(int expectedIds) {
+            super((8L << slotBits(expectedIds)) * SEGMENTS);
+            this.slotBits = slotBits(expectedIds);
+            this.slotMask = (1 << slotBits) - 1;
+            this.maxPerSegment = (1 << slotBits) - (1 << (slotBits - 3));
+        }
+
+        /**
+         * 每段按期望数 + 4倍标准差分配（ID按哈希近似均匀落段：二项分布）
+         */
+        private static int slotBits(int expectedIds) {
+            double perSegment = expectedIds / (double) SEGMENTS;
+            return tableBits((long) Math.ceil((perSegment + 4 * Math.sqrt(perSegment)) / 0.75D) + 1);
+        }
+
+        @Override
+        void clear() {
+            super.clear();
+            for (int i = 0; i < SEGMENTS; i++) {
+                counts[i] = 0;
+            }
+        }
+
+        @Override
+        boolean add(long id) {
+            long key = id + 1;
+            long hash = id * GOLDEN;
+            int segment = (int) (hash >>> (64 - SEGMENT_BITS));
+            int base = segment << slotBits;
+            int i = (int) (hash >>> (64 - SEGMENT_BITS - slotBits)) & slotMask;
+            ReentrantLock segmentLock = segmentLocks[segment];
+            segmentLock.lock();
+            try {
+                while (true) {
+                    int offset = (base + i) << 3;
+                    long k = data.getLong(offset);
+                    if (k == key) {
+                        return false;
+                    }
+                    if (k == 0) {
+                        if (counts[segment] >= maxPerSegment) {
+                            throw new IllegalStateException("bucket segment is full, expected ids per bucket is too small");
+                        }
+                        data.putLong(offset, key);
+                        counts[segment]++;
+                        return true;
+                    }
+                    i = (i + 1) & slotMask;
+                }
+            } finally {
+                segmentLock.unlock();
+            }
+        }
+
+        @Override
+        boolean contains(long id) {
+            long key = id + 1;
+            long hash = id * GOLDEN;
+            int segment = (int) (hash >>> (64 - SEGMENT_BITS));
+            int base = segment << slotBits;
+            int i = (int) (hash >>> (64 - SEGMENT_BITS - slotBits)) & slotMask;
+            ReentrantLock segmentLock = segmentLocks[segment];
+            segmentLock.lock();
+            try {
+                long k;
+                while ((k = data.getLong((base + i) << 3)) != 0) {
+                    if (k == key) {
+                        return true;
+                    }
+                    i = (i + 1) & slotMask;
+                }
+                return false;
+            } finally {
+                segmentLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 分块布隆过滤器：一个ID的k个位都落在同一个512位的块内，一次缓存行访问
+     */
+    private static final class BloomBucket extends Bucket {
+        private static final int BLOCK_BYTES = 64;
+        private static final int BLOCK_BITS = BLOCK_BYTES * 8;
+        private final int blockMask;
+        private final int hashes;
+
+        BloomBucket(int expectedIds, double fpp) {
+            this(expectedIds, fpp, tableBits((long) Math.ceil(optimalBits(expectedIds, fpp) / (double) BLOCK_BITS)));
+        }
+
+        private BloomBucket(int expectedIds, double fpp, int blockBits) {
+            super((long) BLOCK_BYTES << blockBits);
+            this.blockMask = (1 << blockBits) - 1;
+            long bits = (long) BLOCK_BITS << blockBits;
+            this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) bits / expectedIds * Math.log(2))));
+        }
+
+        private static long optimalBits(int n, double fpp) {
+            return (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        }
+
+        @Override
+        boolean add(long id) {
+            long hash = mix64(id);
+            int block = (int) hash & blockMask;
+            int a = (int) (hash >>> 32);
+            int b = (int) mix64(hash) | 1;
+            int blockOffset = block * BLOCK_BYTES;
+            ReentrantLock segmentLock = segmentLocks[block & (SEGMENTS - 1)];
+            segmentLock.lock();
+            try {
+                boolean added = false;
+                for (int i = 0; i < hashes; i++) {
+                    int bit = (a + i * b) & (BLOCK_BITS - 1);
+                    int offset = blockOffset + ((bit >>> 6) << 3);
+                    long word = data.getLong(offset);
+                    long mask = 1L << bit;
+                    if ((word & mask) == 0) {
+                        data.putLong(offset, word | mask);
+                        added = true;
+                    }
+                }
+                return added;
+            } finally {
+                segmentLock.unlock();
+            }
+        }
+
+        @Override
+        boolean contains(long id) {
+            long hash = mix64(id);
+            int block = (int) hash & blockMask;
+            int a = (int) (hash >>> 32);
+            int b = (int) mix64(hash) | 1;
+            int blockOffset = block * BLOCK_BYTES;
+            ReentrantLock segmentLock = segmentLocks[block & (SEGMENTS - 1)];
+            segmentLock.lock();
+            try {
+                for (int i = 0; i < hashes; i++) {
+                    int bit = (a + i * b) & (BLOCK_BITS - 1);
+                    if ((data.getLong(blockOffset + ((bit >>> 6) << 3)) & (1L << bit)) == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            } finally {
+                segmentLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.fan.tools4j.core.distributed;
+
+import org.fan.tools4j.core.lang.LongArrayList;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 多路归并：将多个ID生成器各自有序的ID流合并为全局时间序
+ * <p>
+ * 排序键为(ID内嵌时间, ID)，时间按各来源的位数设置解析（getIdTimeMillis），不同位数设置的来源可以混合归并。
+ * 归并状态为k个来源的小顶堆，与数据量无关；来源按需读取，可流式处理。
+ * 非线程安全。
+ */
+public class SnowflakeIdMerger implements PrimitiveIterator.OfLong {
+
+    /**
+     * 并行排序阈值：不超过该长度的区间单线程排序
+     */
+    public static final int PARALLEL_SORT_THRESHOLD = 8192;
+
+    private Source[] sources = new Source[4];
+    /**
+     * 小顶堆：来源下标，按来源当前ID的排序键
+     */
+    private int[] heap;
+    private int heapSize;
+    private int sourceCount;
+    private boolean started;
+
+    /**
+     * 添加有序来源（按ID升序，同一位数设置下即时间序）
+     * @param ids
+     * @param layout 生成ID的位数设置（用于解析ID时间）
+     * @return this
+     */
+    public SnowflakeIdMerger addSource(PrimitiveIterator.OfLong ids, SnowflakeIdWorker layout) {
+        return addSource(new Source(ids, layout));
+    }
+
+    public SnowflakeIdMerger addSource(long[] ids, SnowflakeIdWorker layout) {
+        return addSource(ids, 0, ids.length, layout);
+    }
+
+    /**
+     * @param ids
+     * @param from inclusive
+     * @param to exclusive
+     * @param layout
+     * @return this
+     */
+    public SnowflakeIdMerger addSource(long[] ids, int from, int to, SnowflakeIdWorker layout) {
+        if (from < 0 || to > ids.length || from > to) {
+            throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + ids.length);
+        }
+        return addSource(new PrimitiveIterator.OfLong() {
+
+            private int index = from;
+
+            @Override
+            public boolean hasNext() {
+                return index < to;
+            }
+
+            @Override
+            public long nextLong() {
+                if (index >= to) {
+                    throw new NoSuchElementException();
+                }
+                return ids[index++];
+            }
+        }, layout);
+    }
+
+    /**
+     * 读取position到limit之间的ID（会移动position）
+     * @param ids
+     * @param layout
+     * @return this
+     */
+    public SnowflakeIdMerger addSource(LongBuffer ids, SnowflakeIdWorker layout) {
+        return addSource(new PrimitiveIterator.OfLong() {
+
+            @Override
+            public boolean hasNext() {
+                return ids.hasRemaining();
+            }
+
+            @Override
+            public long nextLong() {
+                return ids.get();
+            }
+        }, layout);
+    }
+
+    private SnowflakeIdMerger addSource(Source source) {
+        if (started) {
+            throw new IllegalStateException("merge is started, can't add source");
+        }
+        if (sourceCount == sources.length) {
+            sources = Arrays.copyOf(sources, sourceCount << 1);
+        }
+        sources[sourceCount++] = source;
+        return this;
+    }
+
+    private void start() {
+        started = true;
+        heap = new int[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            if (sources[i].advance()) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            start();
+        }
+        return heapSize > 0;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Source top = sources[heap[0]];
+        long id = top.id;
+        // 来源耗尽：堆尾补位
+        if (!top.advance()) {
+            heap[0] = heap[--heapSize];
+        }
+        if (heapSize > 0) {
+            siftDown(0);
+        }
+        return id;
+    }
+
+    /**
+     * 归并剩余全部ID，追加到ids中
+     * @param ids
+     * @return ids
+     */
+    public LongArrayList mergeTo(LongArrayList ids) {
+        while (hasNext()) {
+            ids.add(nextLong());
+        }
+        return ids;
+    }
+
+    /**
+     * 归并同一位数设置下的多个有序数组
+     * @param layout
+     * @param runs
+     * @return
+     */
+    public static long[] mergeAll(SnowflakeIdWorker layout, long[]... runs) {
+        SnowflakeIdMerger merger = new SnowflakeIdMerger();
+        int total = 0;
+        for (long[] run : runs) {
+            merger.addSource(run, layout);
+            total += run.length;
+        }
+        return merger.mergeTo(new LongArrayList(total)).toArray();
+    }
+
+    private void siftDown(int i) {
+        int index = heap[i];
+        Source source = sources[index];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            int right = child + 1;
+            if (right < heapSize && less(sources[heap[right]], sources[heap[child]])) {
+                child = right;
+            }
+            if (!less(sources[heap[child]], source)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = index;
+    }
+
+    private static boolean less(Source a, Source b) {
+        return a.timeMillis != b.timeMillis ? a.timeMillis < b.timeMillis : a.id < b.id;
+    }
+
+    /**
+     * 并行排序（升序）：同一位数设置下，ID升序即时间序
+     * @param ids
+     */
+    public static void sort(long[] ids) {
+        sort(ids, 0, ids.length, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 针对近似有序的ID（各生成器交错写入）：自然有序的区间直接跳过，
+     * 两半已衔接有序时不归并，否则只归并两半交叠的部分
+     * @param ids
+     * @param from inclusive
+     * @param to exclusive
+     * @param pool
+     */
+    public static void sort(long[] ids, int from, int to, ForkJoinPool pool) {
+        if (from < 0 || to > ids.length || from > to) {
+            throw new IndexOutOfBoundsException("from " + from + ", to " + to + ", length " + ids.length);
+        }
+        if (to - from <= PARALLEL_SORT_THRESHOLD) {
+            sortRange(ids, null, from, to);
+            return;
+        }
+        pool.invoke(new SortTask(ids, new long[ids.length], from, to));
+    }
+
+    /**
+     * @param buffer 与ids下标一致的归并缓冲区，null时整体排序
+     */
+    private static void sortRange(long[] ids, long[] buffer, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (ids[i - 1] > ids[i]) {
+                // Arrays.sort会识别升序段，段数少时按段归并
+                if (buffer == null || i - 1 == from) {
+                    Arrays.sort(ids, from, to);
+                    return;
+                }
+                // 有序前缀不参与排序，只与后半归并
+                Arrays.sort(ids, i - 1, to);
+                merge(ids, buffer, from, i - 1, to);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 归并[from, mid)和[mid, to)两个有序区间，buffer与ids下标一致
+     */
+    private static void merge(long[] ids, long[] buffer, int from, int mid, int to) {
+        if (ids[mid - 1] <= ids[mid]) {
+            return;
+        }
+        // 前半中不大于ids[mid]的前缀、后半中不小于ids[mid-1]的后缀已在最终位置
+        from = upperBound(ids, from, mid, ids[mid]);
+        to = lowerBound(ids, mid, to, ids[mid - 1]);
+        System.arraycopy(ids, from, buffer, from, mid - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            ids[k++] = buffer[i] <= ids[j] ? buffer[i++] : ids[j++];
+        }
+        // 后半剩余已在原位
+        System.arraycopy(buffer, i, ids, k, mid - i);
+    }
+
+    /**
+     * @return [from, to)中第一个大于key的下标
+     */
+    private static int upperBound(long[] ids, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (ids[mid] <= key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return [from, to)中第一个不小于key的下标
+     */
+    private static int lowerBound(long[] ids, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (ids[mid] < key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private static class SortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] ids;
+        private final long[] buffer;
+        private final int from;
+        private final int to;
+
+        SortTask(long[] ids, long[] buffer, int from, int to) {
+            this.ids = ids;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_SORT_THRESHOLD) {
+                sortRange(ids, buffer, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask(ids, buffer, from, mid), new SortTask(ids, buffer, mid, to));
+            merge(ids, buffer, from, mid, to);
+        }
+    }
+
+    /**
+     * 来源的当前ID及其时间
+     */
+    private static final class Source {
+
+        private final PrimitiveIterator.OfLong ids;
+        private final SnowflakeIdWorker layout;
+        private long id;
+        private long timeMillis = Long.MIN_VALUE;
+
+        Source(PrimitiveIterator.OfLong ids, SnowflakeIdWorker layout) {
+            this.ids = ids;
+            this.layout = layout;
+        }
+
+        /**
+         * 读取下一个ID
+         * @return false：来源耗尽
+         */
+        boolean advance() {
+            if (!ids.hasNext()) {
+                return false;
+            }
+            long next = ids.nextLong();
+            long nextTime = layout.getIdTimeMillis(next);
+            if (nextTime < timeMillis || (nextTime == timeMillis && next < id)) {
+                throw new IllegalStateException(String.format("source is not sorted: %d after %d", next, id));
+            }
+            id = next;
+            timeMillis = nextTime;
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.fan.tools4j.core.distributed;
 
 import org.fan.tools4j.core.lang.DateUtils;
+import org.fan.tools4j.core.lang.LongArrayList;
 import org.fan.tools4j.core.lang.StringUtils;
 
 import java.util.concurrent.CountDownLatch;
@@ -169,20 +170,16 @@ public class SnowflakeIdWorker {
     public synchronized long nextId() {
         long timestamp = timeGen();
         // 系统时钟回退时间
-        long backOffset = lastTimestamp - timestamp;
-        // 单位转换：秒
-        if (timeUnit == TimeUnit.SECONDS) {
-            backOffset = DateUtils.toUnixTimeOfCeil(backOffset);
+        long backOffset = backOffset(timestamp);
+        // 允许范围内休眠，醒来后重新取时间：沿用回退的时间戳会与已生成的ID重复
+        while (backOffset > 0 && backOffset <= MAX_BACKWARD) {
+            LockSupport.parkNanos(timeUnit.toNanos(backOffset));
+            timestamp = timeGen();
+            backOffset = backOffset(timestamp);
         }
+        // 超出抛异常
         if (backOffset > 0) {
-            // 允许范围内休眠
-            if (backOffset <= MAX_BACKWARD) {
-                LockSupport.parkNanos(timeUnit.toNanos(backOffset));
-            }
-            // 超出抛异常
-            else {
-                throw new RuntimeException(String.format("Clock moved backwards. Refusing to generate id for %d %s", backOffset, timeUnit.toString()));
-            }
+            throw new RuntimeException(String.format("Clock moved backwards. Refusing to generate id for %d %s", backOffset, timeUnit.toString()));
         }
         // 如果是同一时间生成的，则进行序列递增
         if (backOffset == 0) {
@@ -211,6 +208,34 @@ public class SnowflakeIdWorker {
                 | sequence;
     }
 
+    /**
+     * 系统时钟相对上次生成ID的回退时间
+     * @param timestamp 当前时间戳
+     * @return 毫秒|秒（向上取整）
+     */
+    private long backOffset(long timestamp) {
+        long backOffset = lastTimestamp - timestamp;
+        // 单位转换：秒
+        if (timeUnit == TimeUnit.SECONDS) {
+            backOffset = DateUtils.toUnixTimeOfCeil(backOffset);
+        }
+        return backOffset;
+    }
+
+    /**
+     * 批量获取ID，追加到ids中（只获取一次锁，避免装箱）
+     * @param ids
+     * @param count
+     * @return ids
+     */
+    public synchronized LongArrayList nextIds(LongArrayList ids, int count) {
+        ids.ensureCapacity(ids.size() + count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId());
+        }
+        return ids;
+    }
+
     /**
      * 阻塞到下一个毫秒|秒，直到获得新的时间戳
      * @param lastTimestamp 上次生成ID的时间截
@@ -274,7 +299,8 @@ public class SnowflakeIdWorker {
             maxLength = length;
         }
         String dayFormat = DateUtils.getFormatDate(lastTimestamp, "yyyyMMdd");
-        return dayFormat + StringUtils.toFixedLength(String.valueOf(newId), maxLength, '0');
+        StringBuilder sb = new StringBuilder(dayFormat.length() + maxLength).append(dayFormat);
+        return StringUtils.appendFixedLength(sb, newId, maxLength, -1, '0').toString();
     }
 
     @Override
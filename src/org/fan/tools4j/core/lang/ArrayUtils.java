@@ -1,8 +1,9 @@
 package org.fan.tools4j.core.lang;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**  
  * @Title: ArrayUtils.java
@@ -17,8 +18,42 @@ import java.util.stream.Collectors;
  */
 public class ArrayUtils {
 	
-	public static List<String> deepCopy(List<String> original){
-		return original.stream().collect(Collectors.toCollection(ArrayList::new));
+	/**
+	 * copy the list into a presized ArrayList (bulk array copy, no stream pipeline)
+	 * @param original
+	 * @return
+	 */
+	public static <T> List<T> deepCopy(List<? extends T> original){
+		return new ArrayList<>(original);
+	}
+
+	/**
+	 * copy the range of the list into a presized ArrayList
+	 * @param original
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @return
+	 */
+	public static <T> List<T> copyOf(List<? extends T> original, int from, int to){
+		return new ArrayList<>(original.subList(from, to));
+	}
+
+	public static <T> List<T> toList(T[] array){
+		return new ArrayList<>(Arrays.asList(array));
+	}
+
+	public static <T> T[] copyOf(T[] array){
+		return Arrays.copyOf(array, array.length);
+	}
+
+	/**
+	 * read-only copy with structural sharing: O(1) when original is already a snapshot,
+	 * later modifications by PersistentList.plus/with/pop cost O(log n)
+	 * @param original
+	 * @return
+	 */
+	public static <T> PersistentList<T> snapshot(Collection<? extends T> original){
+		return PersistentList.copyOf(original);
 	}
 
 }
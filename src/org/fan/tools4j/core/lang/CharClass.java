@@ -0,0 +1,219 @@
+package org.fan.tools4j.core.lang;
+
+/**
+ * @Title: CharClass.java
+ *
+ * @Description: immutable char set backed by a precomputed bitmap, membership is one array lookup
+ */
+public final class CharClass {
+
+	private static final int MAX_KERNEL_MEMBERS = 16;
+
+	/**
+	 * bit c is set if char c is in the class, sized to the max char
+	 */
+	private final long[] bits;
+
+	/**
+	 * members for StringKernels.indexOfAny, null if the class is too large
+	 */
+	private final char[] members;
+
+	private CharClass(long[] bits) {
+		this.bits = bits;
+		int count = 0;
+		for (long word : bits) {
+			count += Long.bitCount(word);
+		}
+		if (count > MAX_KERNEL_MEMBERS) {
+			this.members = null;
+			return;
+		}
+		this.members = new char[count];
+		int n = 0;
+		for (int c = 0; c < bits.length << 6; c++) {
+			if ((bits[c >>> 6] & (1L << c)) != 0) {
+				members[n++] = (char) c;
+			}
+		}
+	}
+
+	public static CharClass of(char... chars) {
+		int max = 0;
+		for (char c : chars) {
+			max = Math.max(max, c);
+		}
+		long[] bits = new long[(max >>> 6) + 1];
+		for (char c : chars) {
+			bits[c >>> 6] |= 1L << c;
+		}
+		return new CharClass(bits);
+	}
+
+	public static CharClass of(CharSequence chars) {
+		char[] array = new char[chars.length()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = chars.charAt(i);
+		}
+		return of(array);
+	}
+
+	/**
+	 * @param from inclusive
+	 * @param to inclusive
+	 * @return
+	 */
+	public static CharClass range(char from, char to) {
+		if (from > to) {
+			throw new IllegalArgumentException(String.format("char range is illegal: %d > %d", (int) from, (int) to));
+		}
+		long[] bits = new long[(to >>> 6) + 1];
+		for (int c = from; c <= to; c++) {
+			bits[c >>> 6] |= 1L << c;
+		}
+		return new CharClass(bits);
+	}
+
+	public CharClass union(CharClass other) {
+		long[] union = new long[Math.max(bits.length, other.bits.length)];
+		for (int i = 0; i < union.length; i++) {
+			union[i] = (i < bits.length ? bits[i] : 0L) | (i < other.bits.length ? other.bits[i] : 0L);
+		}
+		return new CharClass(union);
+	}
+
+	public boolean contains(char c) {
+		int word = c >>> 6;
+		return word < bits.length && (bits[word] & (1L << c)) != 0;
+	}
+
+	public int indexOfAny(CharSequence str) {
+		return indexOfAny(str, 0);
+	}
+
+	/**
+	 * @param str
+	 * @param fromIndex
+	 * @return index of the first char in the class, -1 if none
+	 */
+	public int indexOfAny(CharSequence str, int fromIndex) {
+		for (int i = Math.max(fromIndex, 0), len = str.length(); i < len; i++) {
+			if (contains(str.charAt(i))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param a
+	 * @param from
+	 * @param to
+	 * @return index of the first char of [from, to) in the class, -1 if none
+	 */
+	public int indexOfAny(char[] a, int from, int to) {
+		if (members != null) {
+			return StringKernels.indexOfAny(a, from, to, members);
+		}
+		for (int i = from; i < to; i++) {
+			if (contains(a[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int countAny(CharSequence str) {
+		return countAny(str, 0);
+	}
+
+	public int countAny(CharSequence str, int fromIndex) {
+		int count = 0;
+		for (int i = Math.max(fromIndex, 0), len = str.length(); i < len; i++) {
+			if (contains(str.charAt(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * replace every char in the class
+	 * @param str
+	 * @param replacement
+	 * @return str itself if nothing replaced
+	 */
+	public String replaceAny(String str, char replacement) {
+		int i = indexOfAny(str, 0);
+		if (i < 0) {
+			return str;
+		}
+		char buf[] = str.toCharArray();
+		for (; i < buf.length; i++) {
+			if (contains(buf[i])) {
+				buf[i] = replacement;
+			}
+		}
+		return new String(buf);
+	}
+
+	/**
+	 * prefix every char in the class with escapeChar, the buffer is allocated with the exact output size
+	 * @param str
+	 * @param escapeChar
+	 * @return str itself if nothing escaped
+	 */
+	public String escape(String str, char escapeChar) {
+		int len = str.length();
+		int i = indexOfAny(str, 0);
+		if (i < 0) {
+			return str;
+		}
+		char buf[] = new char[len + countAny(str, i)];
+		// 复制前面的字符
+		str.getChars(0, i, buf, 0);
+		int pos = i;
+		for (; i < len; i++) {
+			char c = str.charAt(i);
+			if (contains(c)) {
+				buf[pos++] = escapeChar;
+			}
+			buf[pos++] = c;
+		}
+		return new String(buf);
+	}
+
+	/**
+	 * escape chars of [from, to), scanned with indexOfAny(char[], int, int) (vectorizable), same result as
+	 * escape(new String(a, from, to - from), escapeChar)
+	 * @param a
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @param escapeChar
+	 * @return
+	 */
+	public String escape(char[] a, int from, int to, char escapeChar) {
+		int first = indexOfAny(a, from, to);
+		if (first < 0) {
+			return new String(a, from, to - from);
+		}
+		int count = 0;
+		for (int i = first; i >= 0; i = indexOfAny(a, i + 1, to)) {
+			count++;
+		}
+		char buf[] = new char[to - from + count];
+		int pos = 0;
+		// 逐段复制两个转义字符之间的字符
+		for (int i = first, start = from; ; i = indexOfAny(a, i + 1, to)) {
+			int end = i < 0 ? to : i;
+			System.arraycopy(a, start, buf, pos, end - start);
+			pos += end - start;
+			if (i < 0) {
+				break;
+			}
+			buf[pos++] = escapeChar;
+			start = i;
+		}
+		return new String(buf);
+	}
+}
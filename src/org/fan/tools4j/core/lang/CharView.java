@@ -0,0 +1,286 @@
+package org.fan.tools4j.core.lang;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * @Title: CharView.java
+ *
+ * @Description: lazy CharSequence over a source sequence, chars are computed on demand and nothing is copied
+ * until toString(). The source must not be modified while the view is in use.
+ */
+public abstract class CharView implements CharSequence {
+
+	/**
+	 * chunk size when a computed view is written to a Writer
+	 */
+	private static final int CHUNK_SIZE = 256;
+
+	CharView() {
+	}
+
+	/**
+	 * same chars as StringUtils.toReverse(source)
+	 * @param source
+	 * @return
+	 */
+	public static CharView reverse(CharSequence source) {
+		return new Reversed(source);
+	}
+
+	/**
+	 * same chars as StringUtils.toEllipsis(source, length, ellipsis)
+	 * @param source
+	 * @param length
+	 * @param ellipsis
+	 * @return
+	 */
+	public static CharView ellipsis(CharSequence source, int length, CharSequence ellipsis) {
+		if (source.length() <= length) {
+			return new Padded(source, 0, source.length(), 0, -1, ' ');
+		}
+		int head = length - ellipsis.length();
+		if (head < 0) {
+			throw new StringIndexOutOfBoundsException(head);
+		}
+		return new Ellipsis(source, head, ellipsis);
+	}
+
+	/**
+	 * same chars as StringUtils.toFixedLength(source, length, direction, fillChar)
+	 * @param source
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return
+	 */
+	public static CharView fixedLength(CharSequence source, int length, int direction, char fillChar) {
+		int srcLen = source.length();
+		if (srcLen >= length) {
+			int start = direction < 0 ? 0 : srcLen - length;
+			return new Padded(source, start, start + length, 0, direction, fillChar);
+		}
+		return new Padded(source, 0, srcLen, length - srcLen, direction, fillChar);
+	}
+
+	@Override
+	public CharView subSequence(int start, int end) {
+		checkRange(start, end, length());
+		return new Slice(this, start, end);
+	}
+
+	/**
+	 * write all chars of the view, runs of the source are appended directly
+	 * @param out
+	 * @return out
+	 * @throws IOException
+	 */
+	public abstract Appendable writeTo(Appendable out) throws IOException;
+
+	public StringBuilder appendTo(StringBuilder sb) {
+		sb.ensureCapacity(sb.length() + length());
+		try {
+			writeTo(sb);
+		} catch (IOException e) {
+			// StringBuilder never throws
+			throw new IllegalStateException(e);
+		}
+		return sb;
+	}
+
+	@Override
+	public String toString() {
+		return appendTo(new StringBuilder(length())).toString();
+	}
+
+	/**
+	 * write chars [start, end) of the view, through a chunk buffer if out is a Writer
+	 */
+	Appendable writeChars(Appendable out, int start, int end) throws IOException {
+		if (out instanceof Writer) {
+			char[] chunk = new char[Math.min(CHUNK_SIZE, end - start)];
+			while (start < end) {
+				int n = Math.min(chunk.length, end - start);
+				for (int i = 0; i < n; i++) {
+					chunk[i] = charAt(start + i);
+				}
+				((Writer) out).write(chunk, 0, n);
+				start += n;
+			}
+			return out;
+		}
+		for (int i = start; i < end; i++) {
+			out.append(charAt(i));
+		}
+		return out;
+	}
+
+	static void checkRange(int start, int end, int length) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+		}
+	}
+
+	/**
+	 * Writer.append(csq, start, end) copies through subSequence().toString(), write a String range directly
+	 */
+	static Appendable appendSource(Appendable out, CharSequence source, int start, int end) throws IOException {
+		if (out instanceof Writer && source instanceof String) {
+			((Writer) out).write((String) source, start, end - start);
+			return out;
+		}
+		return out.append(source, start, end);
+	}
+
+	static Appendable appendFill(Appendable out, char fillChar, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			out.append(fillChar);
+		}
+		return out;
+	}
+
+	private static final class Reversed extends CharView {
+
+		private final CharSequence source;
+
+		Reversed(CharSequence source) {
+			this.source = source;
+		}
+
+		@Override
+		public int length() {
+			return source.length();
+		}
+
+		@Override
+		public char charAt(int index) {
+			checkRange(index, index + 1, source.length());
+			return source.charAt(source.length() - 1 - index);
+		}
+
+		@Override
+		public Appendable writeTo(Appendable out) throws IOException {
+			return writeChars(out, 0, source.length());
+		}
+	}
+
+	/**
+	 * source[0, head) + ellipsis
+	 */
+	private static final class Ellipsis extends CharView {
+
+		private final CharSequence source;
+
+		private final int head;
+
+		private final CharSequence ellipsis;
+
+		Ellipsis(CharSequence source, int head, CharSequence ellipsis) {
+			this.source = source;
+			this.head = head;
+			this.ellipsis = ellipsis;
+		}
+
+		@Override
+		public int length() {
+			return head + ellipsis.length();
+		}
+
+		@Override
+		public char charAt(int index) {
+			checkRange(index, index + 1, length());
+			return index < head ? source.charAt(index) : ellipsis.charAt(index - head);
+		}
+
+		@Override
+		public Appendable writeTo(Appendable out) throws IOException {
+			return appendSource(appendSource(out, source, 0, head), ellipsis, 0, ellipsis.length());
+		}
+	}
+
+	/**
+	 * source[start, end) with fillCount fill chars before (direction &lt; 0) or after it
+	 */
+	private static final class Padded extends CharView {
+
+		private final CharSequence source;
+
+		private final int start;
+
+		private final int end;
+
+		private final int fillCount;
+
+		private final int direction;
+
+		private final char fillChar;
+
+		Padded(CharSequence source, int start, int end, int fillCount, int direction, char fillChar) {
+			this.source = source;
+			this.start = start;
+			this.end = end;
+			this.fillCount = fillCount;
+			this.direction = direction;
+			this.fillChar = fillChar;
+		}
+
+		@Override
+		public int length() {
+			return end - start + fillCount;
+		}
+
+		@Override
+		public char charAt(int index) {
+			checkRange(index, index + 1, length());
+			if (direction < 0) {
+				return index < fillCount ? fillChar : source.charAt(start + index - fillCount);
+			}
+			return index < end - start ? source.charAt(start + index) : fillChar;
+		}
+
+		@Override
+		public Appendable writeTo(Appendable out) throws IOException {
+			if (direction < 0) {
+				return appendSource(appendFill(out, fillChar, fillCount), source, start, end);
+			}
+			return appendFill(appendSource(out, source, start, end), fillChar, fillCount);
+		}
+	}
+
+	private static final class Slice extends CharView {
+
+		private final CharView view;
+
+		private final int start;
+
+		private final int end;
+
+		Slice(CharView view, int start, int end) {
+			this.view = view;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			checkRange(index, index + 1, length());
+			return view.charAt(start + index);
+		}
+
+		@Override
+		public CharView subSequence(int from, int to) {
+			checkRange(from, to, length());
+			return new Slice(view, start + from, start + to);
+		}
+
+		@Override
+		public Appendable writeTo(Appendable out) throws IOException {
+			return view.writeChars(out, start, end);
+		}
+	}
+}
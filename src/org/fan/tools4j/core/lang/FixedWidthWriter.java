@@ -0,0 +1,145 @@
+package org.fan.tools4j.core.lang;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * @Title: FixedWidthWriter.java
+ *
+ * @Description: lay out multi-column fixed width records into a reusable buffer,
+ * each column is padded/truncated like StringUtils.toFixedLength
+ */
+public class FixedWidthWriter {
+
+	private final int[] widths;
+
+	private final int[] offsets;
+
+	private final int[] directions;
+
+	private final char[] fillChars;
+
+	/**
+	 * record buffer, reused for every line
+	 */
+	private final char[] line;
+
+	/**
+	 * columns with default layout: fill ' ' from front
+	 * @param widths column widths
+	 */
+	public FixedWidthWriter(int... widths) {
+		this.widths = widths.clone();
+		this.offsets = new int[widths.length];
+		this.directions = new int[widths.length];
+		this.fillChars = new char[widths.length];
+		int length = 0;
+		for (int i = 0; i < widths.length; i++) {
+			if (widths[i] < 0) {
+				throw new IllegalArgumentException("column width can't be less than 0: " + widths[i]);
+			}
+			offsets[i] = length;
+			directions[i] = -1;
+			fillChars[i] = ' ';
+			length += widths[i];
+		}
+		this.line = new char[length];
+		clear();
+	}
+
+	/**
+	 * set column layout
+	 * @param index
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return
+	 */
+	public FixedWidthWriter setColumn(int index, int direction, char fillChar) {
+		directions[index] = direction;
+		fillChars[index] = fillChar;
+		return clear(index);
+	}
+
+	/**
+	 * reset all columns to fill chars
+	 * @return
+	 */
+	public FixedWidthWriter clear() {
+		for (int i = 0; i < widths.length; i++) {
+			clear(i);
+		}
+		return this;
+	}
+
+	public FixedWidthWriter clear(int index) {
+		Arrays.fill(line, offsets[index], offsets[index] + widths[index], fillChars[index]);
+		return this;
+	}
+
+	public FixedWidthWriter set(int index, CharSequence value) {
+		if (value == null) {
+			return clear(index);
+		}
+		StringUtils.writeFixedLength(line, offsets[index], value, widths[index], directions[index], fillChars[index]);
+		return this;
+	}
+
+	public FixedWidthWriter set(int index, long value) {
+		StringUtils.writeFixedLength(line, offsets[index], value, widths[index], directions[index], fillChars[index]);
+		return this;
+	}
+
+	public FixedWidthWriter set(int index, int value) {
+		return set(index, (long) value);
+	}
+
+	public int getColumnCount() {
+		return widths.length;
+	}
+
+	/**
+	 * @return record length: sum of column widths
+	 */
+	public int length() {
+		return line.length;
+	}
+
+	public StringBuilder appendTo(StringBuilder sb) {
+		return sb.append(line);
+	}
+
+	public Appendable writeTo(Appendable out) throws IOException {
+		if (out instanceof Writer) {
+			((Writer) out).write(line);
+			return out;
+		}
+		for (char c : line) {
+			out.append(c);
+		}
+		return out;
+	}
+
+	/**
+	 * write record as single-byte chars, chars beyond ISO-8859-1 are written as '?'
+	 * @param buf
+	 * @return
+	 * @throws BufferOverflowException if fewer than length() bytes remain, nothing is written
+	 */
+	public ByteBuffer writeTo(ByteBuffer buf) {
+		if (buf.remaining() < line.length) {
+			throw new BufferOverflowException();
+		}
+		for (char c : line) {
+			buf.put(StringUtils.toLatin1(c));
+		}
+		return buf;
+	}
+
+	@Override
+	public String toString() {
+		return new String(line);
+	}
+}
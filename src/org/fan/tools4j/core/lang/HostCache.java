@@ -0,0 +1,135 @@
+package org.fan.tools4j.core.lang;
+
+import java.nio.ByteBuffer;
+
+/**
+ * @Title: HostCache.java
+ *
+ * @Description: bounded intern cache for hosts located by HostExtractor, repeated hosts share one String instance.
+ * Direct-mapped by hash: a colliding host replaces the cached one, so the memory stays bounded.
+ * Thread safe without locks: the slots only hold immutable Strings.
+ */
+public class HostCache {
+
+	private final String[] table;
+
+	private final int mask;
+
+	/**
+	 * @param capacity rounded up to power of 2
+	 */
+	public HostCache(int capacity) {
+		if (capacity <= 0 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("capacity must be in (0, 2^30]: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		this.table = new String[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @param url
+	 * @return interned host of the url
+	 */
+	public String host(CharSequence url) {
+		long range = HostExtractor.find(url);
+		return intern(url, HostExtractor.start(range), HostExtractor.end(range));
+	}
+
+	public String intern(CharSequence text, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + text.charAt(i);
+		}
+		int slot = spread(h) & mask;
+		String cached = table[slot];
+		if (cached != null && cached.length() == end - start) {
+			int i = 0;
+			while (i < cached.length() && cached.charAt(i) == text.charAt(start + i)) {
+				i++;
+			}
+			if (i == cached.length()) {
+				return cached;
+			}
+		}
+		String host = text.subSequence(start, end).toString();
+		table[slot] = host;
+		return host;
+	}
+
+	/**
+	 * @param line ASCII bytes
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public String intern(byte[] line, int start, int end) {
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + (line[i] & 0xFF);
+		}
+		int slot = spread(h) & mask;
+		String cached = table[slot];
+		if (cached != null && cached.length() == end - start) {
+			int i = 0;
+			while (i < cached.length() && cached.charAt(i) == (line[start + i] & 0xFF)) {
+				i++;
+			}
+			if (i == cached.length()) {
+				return cached;
+			}
+		}
+		char[] chars = new char[end - start];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (line[start + i] & 0xFF);
+		}
+		String host = new String(chars);
+		table[slot] = host;
+		return host;
+	}
+
+	/**
+	 * @param line ASCII bytes
+	 * @param start absolute index
+	 * @param end absolute index
+	 * @return
+	 */
+	public String intern(ByteBuffer line, int start, int end) {
+		if (line.hasArray()) {
+			return intern(line.array(), line.arrayOffset() + start, line.arrayOffset() + end);
+		}
+		int h = 0;
+		for (int i = start; i < end; i++) {
+			h = 31 * h + (line.get(i) & 0xFF);
+		}
+		int slot = spread(h) & mask;
+		String cached = table[slot];
+		if (cached != null && cached.length() == end - start) {
+			int i = 0;
+			while (i < cached.length() && cached.charAt(i) == (line.get(start + i) & 0xFF)) {
+				i++;
+			}
+			if (i == cached.length()) {
+				return cached;
+			}
+		}
+		char[] chars = new char[end - start];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) (line.get(start + i) & 0xFF);
+		}
+		String host = new String(chars);
+		table[slot] = host;
+		return host;
+	}
+
+	public int capacity() {
+		return table.length;
+	}
+
+	private static int spread(int h) {
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,203 @@
+package org.fan.tools4j.core.lang;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+/**
+ * @Title: HostExtractor.java
+ *
+ * @Description: locate the host of an url without copying, over CharSequence, byte[] or ByteBuffer (ASCII) lines.
+ * The result is a range packed in a long: use start(range) / end(range).
+ * Scheme (xxx://) or "//" prefix is skipped, userinfo (user:pass@) and port (:8080) are excluded,
+ * IPv6 literals are kept with brackets: [::1].
+ */
+public class HostExtractor {
+
+	/**
+	 * @param url
+	 * @return packed host range of the url
+	 */
+	public static long find(CharSequence url) {
+		return find(url, 0, url.length());
+	}
+
+	/**
+	 * @param text
+	 * @param from url start index
+	 * @param to url end index (exclusive)
+	 * @return packed host range, indexes are relative to text
+	 */
+	public static long find(CharSequence text, int from, int to) {
+		// 跳过scheme://或//
+		int i = from;
+		while (i < to && isSchemeChar(text.charAt(i))) {
+			i++;
+		}
+		int authStart = from;
+		if (i > from && i + 2 < to && isLetter(text.charAt(from)) && text.charAt(i) == ':' && text.charAt(i + 1) == '/' && text.charAt(i + 2) == '/') {
+			authStart = i + 3;
+		} else if (from + 1 < to && text.charAt(from) == '/' && text.charAt(from + 1) == '/') {
+			authStart = from + 2;
+		}
+		// authority结束位置，userinfo以最后一个@为准
+		int hostStart = authStart;
+		int authEnd = authStart;
+		for (; authEnd < to; authEnd++) {
+			char c = text.charAt(authEnd);
+			if (isAuthorityEnd(c)) {
+				break;
+			}
+			if (c == '@') {
+				hostStart = authEnd + 1;
+			}
+		}
+		// 去掉端口，IPv6保留[]
+		int hostEnd = hostStart;
+		if (hostStart < authEnd && text.charAt(hostStart) == '[') {
+			while (hostEnd < authEnd && text.charAt(hostEnd) != ']') {
+				hostEnd++;
+			}
+			hostEnd = Math.min(hostEnd + 1, authEnd);
+		} else {
+			while (hostEnd < authEnd && text.charAt(hostEnd) != ':') {
+				hostEnd++;
+			}
+		}
+		return range(hostStart, hostEnd);
+	}
+
+	/**
+	 * @param line ASCII bytes
+	 * @param from url start index
+	 * @param to url end index (exclusive)
+	 * @return packed host range, indexes are relative to line
+	 */
+	public static long find(byte[] line, int from, int to) {
+		int i = from;
+		while (i < to && isSchemeChar((char) line[i])) {
+			i++;
+		}
+		int authStart = from;
+		if (i > from && i + 2 < to && isLetter((char) line[from]) && line[i] == ':' && line[i + 1] == '/' && line[i + 2] == '/') {
+			authStart = i + 3;
+		} else if (from + 1 < to && line[from] == '/' && line[from + 1] == '/') {
+			authStart = from + 2;
+		}
+		int hostStart = authStart;
+		int authEnd = authStart;
+		for (; authEnd < to; authEnd++) {
+			byte b = line[authEnd];
+			if (isAuthorityEnd(b)) {
+				break;
+			}
+			if (b == '@') {
+				hostStart = authEnd + 1;
+			}
+		}
+		int hostEnd = hostStart;
+		if (hostStart < authEnd && line[hostStart] == '[') {
+			while (hostEnd < authEnd && line[hostEnd] != ']') {
+				hostEnd++;
+			}
+			hostEnd = Math.min(hostEnd + 1, authEnd);
+		} else {
+			while (hostEnd < authEnd && line[hostEnd] != ':') {
+				hostEnd++;
+			}
+		}
+		return range(hostStart, hostEnd);
+	}
+
+	/**
+	 * url between position and limit, the buffer position is not changed
+	 * @param line ASCII bytes
+	 * @return packed host range, absolute indexes of the buffer
+	 */
+	public static long find(ByteBuffer line) {
+		if (line.hasArray()) {
+			int offset = line.arrayOffset();
+			long range = find(line.array(), offset + line.position(), offset + line.limit());
+			return range(start(range) - offset, end(range) - offset);
+		}
+		int from = line.position();
+		int to = line.limit();
+		int i = from;
+		while (i < to && isSchemeChar((char) line.get(i))) {
+			i++;
+		}
+		int authStart = from;
+		if (i > from && i + 2 < to && isLetter((char) line.get(from)) && line.get(i) == ':' && line.get(i + 1) == '/' && line.get(i + 2) == '/') {
+			authStart = i + 3;
+		} else if (from + 1 < to && line.get(from) == '/' && line.get(from + 1) == '/') {
+			authStart = from + 2;
+		}
+		int hostStart = authStart;
+		int authEnd = authStart;
+		for (; authEnd < to; authEnd++) {
+			byte b = line.get(authEnd);
+			if (isAuthorityEnd(b)) {
+				break;
+			}
+			if (b == '@') {
+				hostStart = authEnd + 1;
+			}
+		}
+		int hostEnd = hostStart;
+		if (hostStart < authEnd && line.get(hostStart) == '[') {
+			while (hostEnd < authEnd && line.get(hostEnd) != ']') {
+				hostEnd++;
+			}
+			hostEnd = Math.min(hostEnd + 1, authEnd);
+		} else {
+			while (hostEnd < authEnd && line.get(hostEnd) != ':') {
+				hostEnd++;
+			}
+		}
+		return range(hostStart, hostEnd);
+	}
+
+	/**
+	 * @param url
+	 * @return host view over the url, no chars copied
+	 */
+	public static CharSequence hostView(CharSequence url) {
+		long range = find(url);
+		return CharBuffer.wrap(url, start(range), end(range));
+	}
+
+	public static String host(CharSequence url) {
+		long range = find(url);
+		return url.subSequence(start(range), end(range)).toString();
+	}
+
+	public static long range(int start, int end) {
+		return ((long) start << 32) | (end & 0xFFFFFFFFL);
+	}
+
+	public static int start(long range) {
+		return (int) (range >>> 32);
+	}
+
+	public static int end(long range) {
+		return (int) range;
+	}
+
+	public static int length(long range) {
+		return end(range) - start(range);
+	}
+
+	/**
+	 * path, query or fragment starts: end of the authority
+	 */
+	private static boolean isAuthorityEnd(int c) {
+		return c == '/' || c == '?' || c == '#';
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isSchemeChar(char c) {
+		return isLetter(c) || StringUtils.isNumberChar(c) || c == '+' || c == '-' || c == '.';
+	}
+}
@@ -0,0 +1,247 @@
+package org.fan.tools4j.core.lang;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * @Title: LongArrayList.java
+ *
+ * @Description: growable list of primitive long, no boxing.
+ * Memory: 8 bytes per entry (+ up to 50% growth slack, trimToSize() removes it),
+ * compared with about 20 bytes per entry for ArrayList&lt;Long&gt; (reference + Long object).
+ */
+public class LongArrayList {
+
+	private static final long[] EMPTY = new long[0];
+
+	private long[] elements;
+
+	private int size;
+
+	public LongArrayList() {
+		this.elements = EMPTY;
+	}
+
+	public LongArrayList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity can't be less than 0: " + capacity);
+		}
+		this.elements = capacity == 0 ? EMPTY : new long[capacity];
+	}
+
+	public static LongArrayList of(long... values) {
+		LongArrayList list = new LongArrayList(values.length);
+		list.addAll(values);
+		return list;
+	}
+
+	public void ensureCapacity(int capacity) {
+		if (capacity > elements.length) {
+			int newCapacity = Math.max(capacity, elements.length + (elements.length >> 1) + 1);
+			elements = Arrays.copyOf(elements, newCapacity);
+		}
+	}
+
+	public void trimToSize() {
+		if (size < elements.length) {
+			elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+		}
+	}
+
+	public void add(long value) {
+		if (size == elements.length) {
+			ensureCapacity(size + 1);
+		}
+		elements[size++] = value;
+	}
+
+	public void add(int index, long value) {
+		checkPositionIndex(index);
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+	}
+
+	public void addAll(long[] values) {
+		addAll(values, 0, values.length);
+	}
+
+	public void addAll(long[] values, int offset, int length) {
+		ensureCapacity(size + length);
+		System.arraycopy(values, offset, elements, size, length);
+		size += length;
+	}
+
+	public void addAll(LongArrayList list) {
+		addAll(list.elements, 0, list.size);
+	}
+
+	public long get(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	/**
+	 * @param index
+	 * @param value
+	 * @return previous value
+	 */
+	public long set(int index, long value) {
+		checkIndex(index);
+		long old = elements[index];
+		elements[index] = value;
+		return old;
+	}
+
+	/**
+	 * @param index
+	 * @return removed value
+	 */
+	public long removeAt(int index) {
+		checkIndex(index);
+		long old = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return old;
+	}
+
+	/**
+	 * remove all values contained in the set, in one pass
+	 * @param set
+	 * @return count of removed values
+	 */
+	public int removeAll(LongHashSet set) {
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (!set.contains(elements[i])) {
+				elements[kept++] = elements[i];
+			}
+		}
+		int removed = size - kept;
+		size = kept;
+		return removed;
+	}
+
+	public int indexOf(long value) {
+		for (int i = 0; i < size; i++) {
+			if (elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(long value) {
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * @param value
+	 * @return same as Arrays.binarySearch, the list must be sorted
+	 */
+	public int binarySearch(long value) {
+		return Arrays.binarySearch(elements, 0, size, value);
+	}
+
+	public void sort() {
+		Arrays.sort(elements, 0, size);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public long[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	public void forEach(LongConsumer action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(elements[i]);
+		}
+	}
+
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public long nextLong() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				return elements[index++];
+			}
+		};
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private void checkPositionIndex(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof LongArrayList)) {
+			return false;
+		}
+		LongArrayList other = (LongArrayList) o;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (elements[i] != other.elements[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int i = 0; i < size; i++) {
+			hash = 31 * hash + Long.hashCode(elements[i]);
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(size * 8 + 2).append('[');
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(elements[i]);
+		}
+		return sb.append(']').toString();
+	}
+}
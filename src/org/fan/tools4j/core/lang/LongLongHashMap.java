@@ -0,0 +1,306 @@
+package org.fan.tools4j.core.lang;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+/**
+ * @Title: LongLongHashMap.java
+ *
+ * @Description: open-addressing (linear probing) hash map of primitive long to long, no boxing.
+ * Memory: 16 bytes per slot with load factor 0.75, i.e. about 21.3~42.7 bytes per entry,
+ * compared with about 72 bytes per entry for HashMap&lt;Long, Long&gt; (node + 2 Long objects + table slot).
+ * Not thread safe.
+ */
+public class LongLongHashMap {
+
+	public interface LongLongConsumer {
+		void accept(long key, long value);
+	}
+
+	/**
+	 * 0 marks a free slot, the key 0 itself is kept by hasZeroKey/zeroValue
+	 */
+	private long[] keys;
+
+	private long[] values;
+
+	private boolean hasZeroKey;
+
+	private long zeroValue;
+
+	private int size;
+
+	private int mask;
+
+	private int shift;
+
+	private int resizeAt;
+
+	public LongLongHashMap() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize no rehash until expectedSize entries
+	 */
+	public LongLongHashMap(int expectedSize) {
+		allocate(LongHashSet.tableSize(expectedSize));
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		mask = capacity - 1;
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
+		resizeAt = (int) (capacity * LongHashSet.LOAD_FACTOR);
+	}
+
+	/**
+	 * @return slot of the key, or -(insertion slot + 1) if absent
+	 */
+	private int find(long key) {
+		int i = LongHashSet.slot(key, shift);
+		long k;
+		while ((k = keys[i]) != 0) {
+			if (k == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -(i + 1);
+	}
+
+	public boolean containsKey(long key) {
+		return key == 0 ? hasZeroKey : find(key) >= 0;
+	}
+
+	public long getOrDefault(long key, long defaultValue) {
+		if (key == 0) {
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		int i = find(key);
+		return i >= 0 ? values[i] : defaultValue;
+	}
+
+	/**
+	 * @param key
+	 * @param value
+	 * @return true if key was not in the map
+	 */
+	public boolean put(long key, long value) {
+		if (key == 0) {
+			boolean added = !hasZeroKey;
+			hasZeroKey = true;
+			zeroValue = value;
+			return added;
+		}
+		int i = find(key);
+		if (i >= 0) {
+			values[i] = value;
+			return false;
+		}
+		insert(-i - 1, key, value);
+		return true;
+	}
+
+	/**
+	 * add delta to the value of key, absent key starts from 0
+	 * @param key
+	 * @param delta
+	 * @return new value
+	 */
+	public long addTo(long key, long delta) {
+		if (key == 0) {
+			zeroValue = hasZeroKey ? zeroValue + delta : delta;
+			hasZeroKey = true;
+			return zeroValue;
+		}
+		int i = find(key);
+		if (i >= 0) {
+			return values[i] += delta;
+		}
+		insert(-i - 1, key, delta);
+		return delta;
+	}
+
+	/**
+	 * @param map
+	 * @return count of added keys
+	 */
+	public int putAll(LongLongHashMap map) {
+		ensureCapacity(size() + map.size());
+		int added = 0;
+		if (map.hasZeroKey && put(0L, map.zeroValue)) {
+			added++;
+		}
+		long[] otherKeys = map.keys;
+		long[] otherValues = map.values;
+		for (int i = 0; i < otherKeys.length; i++) {
+			if (otherKeys[i] != 0 && put(otherKeys[i], otherValues[i])) {
+				added++;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * @param keys
+	 * @param values value of keys[i] is values[i]
+	 * @return count of added keys
+	 */
+	public int putAll(long[] keys, long[] values) {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException("keys and values must have the same length: " + keys.length + ", " + values.length);
+		}
+		ensureCapacity(size() + keys.length);
+		int added = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (put(keys[i], values[i])) {
+				added++;
+			}
+		}
+		return added;
+	}
+
+	private void insert(int slot, long key, long value) {
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+	}
+
+	/**
+	 * @param key
+	 * @return true if key was in the map
+	 */
+	public boolean remove(long key) {
+		if (key == 0) {
+			boolean had = hasZeroKey;
+			hasZeroKey = false;
+			zeroValue = 0L;
+			return had;
+		}
+		int gap = find(key);
+		if (gap < 0) {
+			return false;
+		}
+		// backward shift deletion, same as LongHashSet
+		int i = (gap + 1) & mask;
+		long k;
+		while ((k = keys[i]) != 0) {
+			int home = LongHashSet.slot(k, shift);
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = k;
+				values[gap] = values[i];
+				gap = i;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[gap] = 0;
+		values[gap] = 0;
+		size--;
+		return true;
+	}
+
+	/**
+	 * @param keys
+	 * @return count of removed keys
+	 */
+	public int removeAll(long[] keys) {
+		int removed = 0;
+		for (long key : keys) {
+			if (remove(key)) {
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	public int removeAll(LongHashSet keys) {
+		int removed = 0;
+		for (PrimitiveIterator.OfLong it = keys.iterator(); it.hasNext(); ) {
+			if (remove(it.nextLong())) {
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		allocate(capacity);
+		for (int j = 0; j < oldKeys.length; j++) {
+			long key = oldKeys[j];
+			if (key != 0) {
+				int i = LongHashSet.slot(key, shift);
+				while (keys[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	public void ensureCapacity(int expectedSize) {
+		int capacity = LongHashSet.tableSize(expectedSize);
+		if (capacity > keys.length) {
+			rehash(capacity);
+		}
+	}
+
+	public int size() {
+		return hasZeroKey ? size + 1 : size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		Arrays.fill(values, 0L);
+		hasZeroKey = false;
+		zeroValue = 0L;
+		size = 0;
+	}
+
+	public long[] keys() {
+		long[] result = new long[size()];
+		int n = 0;
+		if (hasZeroKey) {
+			result[n++] = 0L;
+		}
+		for (long key : keys) {
+			if (key != 0) {
+				result[n++] = key;
+			}
+		}
+		return result;
+	}
+
+	public void forEach(LongLongConsumer action) {
+		if (hasZeroKey) {
+			action.accept(0L, zeroValue);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0) {
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder().append('{');
+		forEach((key, value) -> {
+			if (sb.length() > 1) {
+				sb.append(", ");
+			}
+			sb.append(key).append('=').append(value);
+		});
+		return sb.append('}').toString();
+	}
+}
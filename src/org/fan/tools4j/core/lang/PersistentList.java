@@ -0,0 +1,277 @@
+package org.fan.tools4j.core.lang;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * @Title: PersistentList.java
+ *
+ * @Description: immutable list with structural sharing (32-way trie + tail, like Clojure's PersistentVector).
+ * A copy is the instance itself: O(1); plus / with / pop return a new list sharing all untouched nodes: O(log32 n).
+ * The java.util.List mutators throw UnsupportedOperationException.
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess {
+
+	private static final int BITS = 5;
+
+	private static final int WIDTH = 1 << BITS;
+
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+	private static final PersistentList<?> EMPTY = new PersistentList<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+	private final int size;
+
+	/**
+	 * root level: 5 * trie height
+	 */
+	private final int shift;
+
+	/**
+	 * trie nodes are always WIDTH long, leaves hold elements
+	 */
+	private final Object[] root;
+
+	/**
+	 * last 1~32 elements, not in the trie
+	 */
+	private final Object[] tail;
+
+	private PersistentList(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentList<E> empty() {
+		return (PersistentList<E>) EMPTY;
+	}
+
+	@SafeVarargs
+	public static <E> PersistentList<E> of(E... elements) {
+		return build(Arrays.copyOf(elements, elements.length, Object[].class));
+	}
+
+	/**
+	 * @param elements
+	 * @return elements itself if it's a PersistentList, or a new list built in O(n)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentList<E> copyOf(Collection<? extends E> elements) {
+		if (elements instanceof PersistentList) {
+			return (PersistentList<E>) elements;
+		}
+		return build(elements.toArray());
+	}
+
+	private static <E> PersistentList<E> build(Object[] elements) {
+		int size = elements.length;
+		if (size == 0) {
+			return empty();
+		}
+		int tailOff = tailOff(size);
+		int shift = BITS;
+		while ((1L << (shift + BITS)) < tailOff) {
+			shift += BITS;
+		}
+		Object[] root = tailOff == 0 ? EMPTY_NODE : buildNode(elements, shift, 0, tailOff);
+		return new PersistentList<>(size, shift, root, Arrays.copyOfRange(elements, tailOff, size));
+	}
+
+	private static Object[] buildNode(Object[] elements, int level, int offset, int tailOff) {
+		Object[] node = new Object[WIDTH];
+		for (int i = 0; i < WIDTH; i++) {
+			int start = offset + (i << level);
+			if (start >= tailOff) {
+				break;
+			}
+			node[i] = level == BITS ? Arrays.copyOfRange(elements, start, start + WIDTH) : buildNode(elements, level - BITS, start, tailOff);
+		}
+		return node;
+	}
+
+	private static int tailOff(int size) {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+	private Object[] arrayFor(int index) {
+		if (index >= tailOff(size)) {
+			return tail;
+		}
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (E) arrayFor(index)[index & MASK];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param e
+	 * @return new list with e appended
+	 */
+	public PersistentList<E> plus(E e) {
+		// 尾部未满：只复制尾部
+		if (size - tailOff(size) < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+			newTail[tail.length] = e;
+			return new PersistentList<>(size + 1, shift, root, newTail);
+		}
+		// 尾部已满：放入trie，根节点溢出时增加一层
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentList<>(size + 1, newShift, newRoot, new Object[] { e });
+	}
+
+	private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+		int subidx = ((size - 1) >>> level) & MASK;
+		Object[] node = parent.clone();
+		if (level == BITS) {
+			node[subidx] = tailNode;
+		} else {
+			Object[] child = (Object[]) parent[subidx];
+			node[subidx] = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+		}
+		return node;
+	}
+
+	private static Object[] newPath(int level, Object[] node) {
+		if (level == 0) {
+			return node;
+		}
+		Object[] path = new Object[WIDTH];
+		path[0] = newPath(level - BITS, node);
+		return path;
+	}
+
+	/**
+	 * @param index
+	 * @param e
+	 * @return new list with the element at index replaced
+	 */
+	public PersistentList<E> with(int index, E e) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		if (index >= tailOff(size)) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = e;
+			return new PersistentList<>(size, shift, root, newTail);
+		}
+		return new PersistentList<>(size, shift, doAssoc(shift, root, index, e), tail);
+	}
+
+	private static Object[] doAssoc(int level, Object[] node, int index, Object e) {
+		Object[] copy = node.clone();
+		if (level == 0) {
+			copy[index & MASK] = e;
+		} else {
+			int subidx = (index >>> level) & MASK;
+			copy[subidx] = doAssoc(level - BITS, (Object[]) node[subidx], index, e);
+		}
+		return copy;
+	}
+
+	/**
+	 * @return new list without the last element
+	 */
+	public PersistentList<E> pop() {
+		if (size == 0) {
+			throw new IllegalStateException("Can't pop empty list");
+		}
+		if (size == 1) {
+			return empty();
+		}
+		if (size - tailOff(size) > 1) {
+			return new PersistentList<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+		}
+		// 尾部只剩一个元素：trie最后一个叶子成为新的尾部
+		Object[] newTail = arrayFor(size - 2);
+		Object[] newRoot = popTail(shift, root);
+		int newShift = shift;
+		if (newRoot == null) {
+			newRoot = EMPTY_NODE;
+		}
+		if (shift > BITS && newRoot[1] == null) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+		return new PersistentList<>(size - 1, newShift, newRoot, newTail);
+	}
+
+	private Object[] popTail(int level, Object[] node) {
+		int subidx = ((size - 2) >>> level) & MASK;
+		if (level > BITS) {
+			Object[] newChild = popTail(level - BITS, (Object[]) node[subidx]);
+			if (newChild == null && subidx == 0) {
+				return null;
+			}
+			Object[] copy = node.clone();
+			copy[subidx] = newChild;
+			return copy;
+		}
+		if (subidx == 0) {
+			return null;
+		}
+		Object[] copy = node.clone();
+		copy[subidx] = null;
+		return copy;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int index = 0;
+
+			private Object[] leaf = size > 0 ? arrayFor(0) : tail;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				// 叶子内顺序读取，跨叶子时再查trie
+				if (index > 0 && (index & MASK) == 0) {
+					leaf = arrayFor(index);
+				}
+				return (E) leaf[index++ & MASK];
+			}
+		};
+	}
+}
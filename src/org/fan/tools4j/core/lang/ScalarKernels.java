@@ -0,0 +1,51 @@
+package org.fan.tools4j.core.lang;
+
+/**
+ * @Title: ScalarKernels.java
+ *
+ * @Description: scalar char[] kernels, the Java 8 implementation of StringKernels
+ * and the fallback of the Java 21 vector implementation
+ */
+final class ScalarKernels {
+
+	private ScalarKernels() {
+	}
+
+	static int sum(char[] a, int from, int to) {
+		int sum = 0;
+		for (int i = from; i < to; i++) {
+			sum += a[i];
+		}
+		return sum;
+	}
+
+	static void reverse(char[] a, int from, int to) {
+		for (int i = from, j = to - 1; i < j; i++, j--) {
+			char c = a[i];
+			a[i] = a[j];
+			a[j] = c;
+		}
+	}
+
+	static int indexOfAny(char[] a, int from, int to, char[] chars) {
+		for (int i = from; i < to; i++) {
+			char c = a[i];
+			for (char target : chars) {
+				if (c == target) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	static boolean allInRange(char[] a, int from, int to, char low, char high) {
+		for (int i = from; i < to; i++) {
+			char c = a[i];
+			if (c < low || c > high) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
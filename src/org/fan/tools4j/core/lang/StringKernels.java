@@ -0,0 +1,50 @@
+package org.fan.tools4j.core.lang;
+
+/**
+ * @Title: StringKernels.java
+ *
+ * @Description: bulk char[] kernels behind the char[] entries of StringUtils and CharClass.
+ * The jar is multi-release: on Java 21+ with --add-modules jdk.incubator.vector
+ * the kernels are vectorized (META-INF/versions/21), otherwise this scalar implementation is used.
+ * Both produce identical results.
+ */
+public final class StringKernels {
+
+	private StringKernels() {
+	}
+
+	/**
+	 * @return true if the vector implementation is in use
+	 */
+	public static boolean isVectorized() {
+		return false;
+	}
+
+	/**
+	 * @return sum of chars, int overflow wraps like StringUtils.toAscii
+	 */
+	public static int sum(char[] a, int from, int to) {
+		return ScalarKernels.sum(a, from, to);
+	}
+
+	/**
+	 * reverse chars of [from, to) in place
+	 */
+	public static void reverse(char[] a, int from, int to) {
+		ScalarKernels.reverse(a, from, to);
+	}
+
+	/**
+	 * @return index of the first char of [from, to) equal to any of chars, -1 if none
+	 */
+	public static int indexOfAny(char[] a, int from, int to, char[] chars) {
+		return ScalarKernels.indexOfAny(a, from, to, chars);
+	}
+
+	/**
+	 * @return true if every char of [from, to) is in [low, high]
+	 */
+	public static boolean allInRange(char[] a, int from, int to, char low, char high) {
+		return ScalarKernels.allInRange(a, from, to, low, high);
+	}
+}
@@ -0,0 +1,344 @@
+package org.fan.tools4j.core.lang;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @Title: StringReplacer.java
+ *
+ * @Description: multi-literal search and replace (Aho-Corasick), compiled once and scanning the input in a single pass.
+ * Matches are leftmost-longest and non-overlapping: the earliest match wins, the longest term among the same start.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class StringReplacer {
+
+	private static final int ROOT = 0;
+
+	private final String[] terms;
+
+	private final String[] replacements;
+
+	/**
+	 * edges of state s: [edgeStart[s], edgeStart[s + 1]), chars sorted
+	 */
+	private final int[] edgeStart;
+
+	private final char[] edgeChars;
+
+	private final int[] edgeTargets;
+
+	/**
+	 * failure link: longest proper suffix state
+	 */
+	private final int[] fail;
+
+	/**
+	 * term index ending at state, -1 if none
+	 */
+	private final int[] termOf;
+
+	/**
+	 * nearest suffix state (by failure links) which ends a term, ROOT if none
+	 */
+	private final int[] dict;
+
+	/**
+	 * length of the prefix spelled by the state
+	 */
+	private final int[] depth;
+
+	private final int maxLength;
+
+	private StringReplacer(Map<String, String> map) {
+		int size = map.size();
+		this.terms = new String[size];
+		this.replacements = new String[size];
+
+		// 构建trie
+		List<TreeMap<Character, Integer>> children = new ArrayList<>();
+		List<Integer> termList = new ArrayList<>();
+		children.add(new TreeMap<>());
+		termList.add(-1);
+		int index = 0;
+		int longest = 0;
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			String term = entry.getKey();
+			if (StringUtils.isEmpty(term)) {
+				throw new IllegalArgumentException("term can't be empty");
+			}
+			if (entry.getValue() == null) {
+				throw new IllegalArgumentException("replacement can't be null: " + term);
+			}
+			terms[index] = term;
+			replacements[index] = entry.getValue();
+			longest = Math.max(longest, term.length());
+			int state = ROOT;
+			for (int i = 0; i < term.length(); i++) {
+				Integer next = children.get(state).get(term.charAt(i));
+				if (next == null) {
+					next = children.size();
+					children.add(new TreeMap<>());
+					termList.add(-1);
+					children.get(state).put(term.charAt(i), next);
+				}
+				state = next;
+			}
+			termList.set(state, index++);
+		}
+		this.maxLength = longest;
+
+		// 压平成数组
+		int states = children.size();
+		this.edgeStart = new int[states + 1];
+		this.edgeChars = new char[states - 1];
+		this.edgeTargets = new int[states - 1];
+		this.termOf = new int[states];
+		int edge = 0;
+		for (int s = 0; s < states; s++) {
+			edgeStart[s] = edge;
+			for (Map.Entry<Character, Integer> child : children.get(s).entrySet()) {
+				edgeChars[edge] = child.getKey();
+				edgeTargets[edge] = child.getValue();
+				edge++;
+			}
+			termOf[s] = termList.get(s);
+		}
+		edgeStart[states] = edge;
+
+		// 广度优先计算失败链接
+		this.fail = new int[states];
+		this.dict = new int[states];
+		this.depth = new int[states];
+		Deque<Integer> queue = new ArrayDeque<>();
+		for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1]; e++) {
+			queue.add(edgeTargets[e]);
+			depth[edgeTargets[e]] = 1;
+		}
+		while (!queue.isEmpty()) {
+			int r = queue.poll();
+			for (int e = edgeStart[r]; e < edgeStart[r + 1]; e++) {
+				int u = edgeTargets[e];
+				queue.add(u);
+				depth[u] = depth[r] + 1;
+				int f = next(fail[r], edgeChars[e]);
+				fail[u] = f;
+				dict[u] = termOf[f] >= 0 ? f : dict[f];
+			}
+		}
+	}
+
+	/**
+	 * @param replacements term -> replacement
+	 * @return
+	 */
+	public static StringReplacer compile(Map<String, String> replacements) {
+		return new StringReplacer(replacements);
+	}
+
+	/**
+	 * replace all terms with the same replacement, e.g. masking sensitive words
+	 * @param terms
+	 * @param replacement
+	 * @return
+	 */
+	public static StringReplacer compile(Collection<String> terms, String replacement) {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (String term : terms) {
+			map.put(term, replacement);
+		}
+		return new StringReplacer(map);
+	}
+
+	private int edge(int state, char c) {
+		int lo = edgeStart[state];
+		int hi = edgeStart[state + 1] - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			char midChar = edgeChars[mid];
+			if (midChar < c) {
+				lo = mid + 1;
+			} else if (midChar > c) {
+				hi = mid - 1;
+			} else {
+				return edgeTargets[mid];
+			}
+		}
+		return -1;
+	}
+
+	private int next(int state, char c) {
+		while (true) {
+			int target = edge(state, c);
+			if (target >= 0) {
+				return target;
+			}
+			if (state == ROOT) {
+				return ROOT;
+			}
+			state = fail[state];
+		}
+	}
+
+	/**
+	 * @param str
+	 * @return true if any term occurs in str
+	 */
+	public boolean containsAny(CharSequence str) {
+		int state = ROOT;
+		for (int i = 0, len = str.length(); i < len; i++) {
+			state = next(state, str.charAt(i));
+			if (termOf[state] >= 0 || dict[state] != ROOT) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param str
+	 * @return leftmost-longest non-overlapping matches, same as the replaced ones
+	 */
+	public List<Match> findAll(CharSequence str) {
+		List<Match> matches = new ArrayList<>();
+		scan(str, null, matches);
+		return matches;
+	}
+
+	/**
+	 * @param str
+	 * @return replaced string, str itself if nothing matched
+	 */
+	public String replace(String str) {
+		if (StringUtils.isEmpty(str)) {
+			return str;
+		}
+		StringBuilder sb = scan(str, null, null);
+		return sb == null ? str : sb.toString();
+	}
+
+	/**
+	 * append replaced str to the builder
+	 * @param str
+	 * @param sb
+	 * @return sb
+	 */
+	public StringBuilder replace(CharSequence str, StringBuilder sb) {
+		return scan(str, sb, null);
+	}
+
+	/**
+	 * scan once, each match is emitted as soon as no earlier or longer match can replace it:
+	 * a match starting before i + 1 - depth[state] can't be found any more.
+	 * Only the undecided starts are held back, at most maxLength of them.
+	 * @param sb replaced output, created on the first match if null
+	 * @param matches collect the matches instead of replacing if not null
+	 * @return sb, null if it was null and nothing matched
+	 */
+	private StringBuilder scan(CharSequence str, StringBuilder sb, List<Match> matches) {
+		int len = str.length();
+		// 待定起始位置上最长的词（词序号+1），按起始位置循环存放
+		int[] pending = null;
+		// 之前的起始位置已确定
+		int decided = 0;
+		// 之前的字符已输出
+		int copyFrom = 0;
+		int state = ROOT;
+		for (int i = 0; i <= len; i++) {
+			int limit = len;
+			if (i < len) {
+				state = next(state, str.charAt(i));
+				// 后缀链上的词依次变短，同一起始位置后出现的词更长
+				for (int t = termOf[state] >= 0 ? state : dict[state]; t != ROOT; t = dict[t]) {
+					int term = termOf[t];
+					int start = i + 1 - terms[term].length();
+					if (start >= copyFrom) {
+						if (pending == null) {
+							pending = new int[maxLength + 1];
+						}
+						pending[start % pending.length] = term + 1;
+					}
+				}
+				limit = i + 1 - depth[state];
+			}
+			if (pending == null) {
+				decided = limit;
+				continue;
+			}
+			for (; decided < limit; decided++) {
+				int slot = decided % pending.length;
+				int term = pending[slot] - 1;
+				pending[slot] = 0;
+				if (term < 0 || decided < copyFrom) {
+					continue;
+				}
+				int end = decided + terms[term].length();
+				if (matches != null) {
+					matches.add(new Match(decided, end, terms[term], replacements[term]));
+				} else {
+					if (sb == null) {
+						sb = new StringBuilder(len + 16);
+					}
+					sb.append(str, copyFrom, decided).append(replacements[term]);
+				}
+				copyFrom = end;
+			}
+		}
+		if (matches == null && sb != null) {
+			sb.append(str, copyFrom, len);
+		}
+		return sb;
+	}
+
+	public int size() {
+		return terms.length;
+	}
+
+	public static final class Match {
+
+		private final int start;
+
+		private final int end;
+
+		private final String term;
+
+		private final String replacement;
+
+		Match(int start, int end, String term, String replacement) {
+			this.start = start;
+			this.end = end;
+			this.term = term;
+			this.replacement = replacement;
+		}
+
+		public int getStart() {
+			return start;
+		}
+
+		public int getEnd() {
+			return end;
+		}
+
+		public String getTerm() {
+			return term;
+		}
+
+		public String getReplacement() {
+			return replacement;
+		}
+
+		@Override
+		public String toString() {
+			return "Match{" +
+					"start=" + start +
+					", end=" + end +
+					", term='" + term + '\'' +
+					'}';
+		}
+	}
+}
@@ -10,7 +10,20 @@ package org.fan.tools4j.core.lang;
  * @date 2022-08-15 02:50:46 
  */
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 public class StringUtils {
 
@@ -30,13 +43,75 @@ public class StringUtils {
 
 	public static final String ALL_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
 
+	public static final CharClass ILLEGAL_FILE_CHAR_CLASS = CharClass.of(ILLEGAL_FILE_CHARS);
+
+	public static final CharClass REGEX_CHAR_CLASS = CharClass.of(REGEX_CHARS);
+
+	private static final Pattern DOUBLE_PATTERN = Pattern.compile(DOUBLE_REGEX);
+
+	private static final Pattern CHINESE_PATTERN = Pattern.compile(CHINESE_REGEX);
+
+	private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+
+	private static final Pattern HTTP_URL_PATTERN = Pattern.compile(HTTP_URL_REGEX);
+
+	private static final StringReplacer XML_ENCODER = StringReplacer.compile(toMap(
+			"&", "&amp;", "<", "&lt;", ">", "&gt;", "'", "&apos;", "\"", "&quot;"));
+
+	private static final StringReplacer XML_DECODER = StringReplacer.compile(toMap(
+			"&lt;", "<", "&gt;", ">", "&apos;", "'", "&quot;", "\"", "&amp;", "&"));
+
+	private static final StringReplacer HTML_ENCODER = StringReplacer.compile(toMap(
+			"&", "&amp;", "<", "&lt;", ">", "&gt;", "\"", "&quot;"));
+
+	private static final StringReplacer HTML_DECODER = StringReplacer.compile(toMap(
+			"&lt;", "<", "&gt;", ">", "&quot;", "\"", "&amp;", "&"));
+
+	private static final StringReplacer HTML_TEXT_ENCODER = StringReplacer.compile(toMap(
+			"<", "&lt;", ">", "&gt;", "\"", "&quot;",
+			" ", "&nbsp;", // 空格
+			"\t", "&nbsp;&nbsp;&nbsp;&nbsp;", // TAB
+			"\r\n", "<br/>", // 回车
+			"\n", "<br/>"));
+
+	/**
+	 * 批量校验并行阈值：数据量不超过该值时单线程校验
+	 */
+	public static final int PARALLEL_VALIDATE_THRESHOLD = 8192;
+
 	/**
 	 * 判断是否为整数
 	 * @param str
 	 * @return 是整数返回true,否则返回false
 	 */
 	public static boolean isInteger(String str) {
-		return str.matches(INTEGER_REGEX);
+		// 等价于INTEGER_REGEX：可选负号 + 至少一位数字
+		int start = str.startsWith("-") ? 1 : 0;
+		int len = str.length();
+		if (len == start) {
+			return false;
+		}
+		for (int i = start; i < len; i++) {
+			if (!isNumberChar(str.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 判断字符数组[from, to)是否为整数，批量校验数字（StringKernels，可向量化）
+	 * @param a
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @return 是整数返回true,否则返回false
+	 */
+	public static boolean isInteger(char[] a, int from, int to) {
+		int start = from < to && a[from] == '-' ? from + 1 : from;
+		if (to <= start) {
+			return false;
+		}
+		return StringKernels.allInRange(a, start, to, '0', '9');
 	}
 
 	/**
@@ -45,7 +120,7 @@ public class StringUtils {
 	 * @return 是浮点数返回true,否则返回false
 	 */
 	public static boolean isDouble(String str) {
-		return str.matches(DOUBLE_REGEX);
+		return DOUBLE_PATTERN.matcher(str).matches();
 	}
 
 	/**
@@ -54,7 +129,7 @@ public class StringUtils {
 	 * @return 如果是纯汉字返回true,否则返回false
 	 */
 	public static boolean isChinese(String str) {
-		return str.matches(CHINESE_REGEX);
+		return CHINESE_PATTERN.matcher(str).matches();
 	}
 
 	/**
@@ -63,7 +138,7 @@ public class StringUtils {
 	 * @return 是Email样式返回true,否则返回false
 	 */
 	public static boolean isEmail(String str) {
-		return str.matches(EMAIL_REGEX);
+		return EMAIL_PATTERN.matcher(str).matches();
 	}
 
 	/**
@@ -72,7 +147,93 @@ public class StringUtils {
 	 * @return 是网址返回true,否则返回false
 	 */
 	public static boolean isHttpUrl(String str) {
-		return str.matches(HTTP_URL_REGEX);
+		return HTTP_URL_PATTERN.matcher(str).matches();
+	}
+
+	public static BitSet validateAll(String[] values, Predicate<? super String> validator) {
+		return validateAll(Arrays.asList(values), validator, ForkJoinPool.commonPool());
+	}
+
+	public static <T extends CharSequence> BitSet validateAll(List<T> values, Predicate<? super T> validator) {
+		return validateAll(values, validator, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * 批量校验，例如：validateAll(values, StringUtils::isInteger)
+	 * 超过PARALLEL_VALIDATE_THRESHOLD时拆分到ForkJoinPool并行，各任务按64位对齐写入互不重叠的位图字
+	 * @param values
+	 * @param validator 需线程安全，null值不调用校验直接视为不通过
+	 * @param pool
+	 * @return 通过校验的值的下标
+	 */
+	public static <T extends CharSequence> BitSet validateAll(List<T> values, Predicate<? super T> validator, ForkJoinPool pool) {
+		if (!(values instanceof RandomAccess)) {
+			values = new ArrayList<>(values);
+		}
+		int size = values.size();
+		long[] words = new long[(size + 63) >>> 6];
+		if (size <= PARALLEL_VALIDATE_THRESHOLD) {
+			validateRange(values, validator, words, 0, size);
+		} else {
+			// 任务粒度：每个线程约4个任务，按64位对齐
+			int grain = Math.max(PARALLEL_VALIDATE_THRESHOLD / 4, size / (pool.getParallelism() * 4));
+			grain = (grain + 63) & ~63;
+			pool.invoke(new ValidateTask<>(values, validator, words, 0, size, grain));
+		}
+		return BitSet.valueOf(words);
+	}
+
+	private static <T extends CharSequence> void validateRange(List<T> values, Predicate<? super T> validator, long[] words, int from, int to) {
+		for (int i = from; i < to; i++) {
+			T value = values.get(i);
+			if (value != null && validator.test(value)) {
+				words[i >>> 6] |= 1L << i;
+			}
+		}
+	}
+
+	private static class ValidateTask<T extends CharSequence> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<T> values;
+		private final Predicate<? super T> validator;
+		private final long[] words;
+		private final int from;
+		private final int to;
+		private final int grain;
+
+		ValidateTask(List<T> values, Predicate<? super T> validator, long[] words, int from, int to, int grain) {
+			this.values = values;
+			this.validator = validator;
+			this.words = words;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				validateRange(values, validator, words, from, to);
+				return;
+			}
+			// 拆分点对齐到64：两个子任务不会写同一个long
+			int mid = from + (((to - from) >>> 1) & ~63);
+			if (mid == from) {
+				mid = from + 64;
+			}
+			invokeAll(new ValidateTask<>(values, validator, words, from, mid, grain),
+					new ValidateTask<>(values, validator, words, mid, to, grain));
+		}
+	}
+
+	private static Map<String, String> toMap(String... pairs) {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < pairs.length; i += 2) {
+			map.put(pairs[i], pairs[i + 1]);
+		}
+		return map;
 	}
 
 	public static boolean isEmpty(CharSequence cs) {
@@ -85,19 +246,26 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String getWebSite(String httpUrl) {
+		int start = 0;
 		if (httpUrl.startsWith("http://")) {
-			httpUrl = httpUrl.substring("http://".length());
+			start = "http://".length();
 		}
-		if (httpUrl.startsWith("https://")) {
-			httpUrl = httpUrl.substring("https://".length());
+		if (httpUrl.startsWith("https://", start)) {
+			start += "https://".length();
 		}
 
-		int index = httpUrl.indexOf("/");
-		if (index == -1) {
-			return httpUrl;
-		} else {
-			return httpUrl.substring(0, index);
-		}
+		int index = httpUrl.indexOf('/', start);
+		return httpUrl.substring(start, index == -1 ? httpUrl.length() : index);
+	}
+
+	/**
+	 * 获取网址的主机名（不含端口、用户信息），不复制字符
+	 * @param httpUrl
+	 * @return 主机名视图
+	 * @see HostExtractor
+	 */
+	public static CharSequence getHostView(CharSequence httpUrl) {
+		return HostExtractor.hostView(httpUrl);
 	}
 
 	/**
@@ -106,13 +274,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static boolean isIllegalFileChar(char c) {
-		for (char fileChar : ILLEGAL_FILE_CHARS) {
-			if (c != fileChar) {
-				continue;
-			}
-			return true;
-		}
-		return false;
+		return ILLEGAL_FILE_CHAR_CLASS.contains(c);
 	}
 
 	/**
@@ -121,13 +283,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static boolean isRegexChar(char c) {
-		for (char regexChar : REGEX_CHARS) {
-			if (c != regexChar) {
-				continue;
-			}
-			return true;
-		}
-		return false;
+		return REGEX_CHAR_CLASS.contains(c);
 	}
 
 	/**
@@ -136,35 +292,24 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String escapeRegex(String str) {
-		int len = str.length();
-		// 查找字符串里是否含有正则表达式字符
-		int i = -1;
-		while (++i < len) {
-			if (isRegexChar(str.charAt(i))) {
-				break;
-			}
-		}
+		return REGEX_CHAR_CLASS.escape(str, '\\');
+	}
 
-		// 字符串含有正则表达式字符
-		if (i < len) {
-			char buf[] = new char[len * 2];
-			// 复制前面的字符
-			for (int j = 0; j < i; j++) {
-				buf[j] = str.charAt(j);
-			}
-			int count = 0;
-			while (i < len) {
-				char c = str.charAt(i);
-				if (isRegexChar(c)) {
-					buf[i + count] = '\\';
-					count++;
-				}
-				buf[i + count] = c;
-				i++;
-			}
-			return new String(buf, 0, len + count);
+	public static String sanitizeFileName(String fileName) {
+		return sanitizeFileName(fileName, '_');
+	}
+
+	/**
+	 * 将文件名中的非法字符替换为replacement
+	 * @param fileName
+	 * @param replacement
+	 * @return
+	 */
+	public static String sanitizeFileName(String fileName, char replacement) {
+		if (isIllegalFileChar(replacement)) {
+			throw new IllegalArgumentException("replacement is illegal file char: " + replacement);
 		}
-		return str;
+		return ILLEGAL_FILE_CHAR_CLASS.replaceAny(fileName, replacement);
 	}
 
 	/**
@@ -230,16 +375,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String xmlEncode(String str) {
-		if (isEmpty(str)) {
-			return str;
-		}
-
-		str = str.replaceAll("&", "&amp;");
-		str = str.replaceAll("<", "&lt;");
-		str = str.replaceAll(">", "&gt;");
-		str = str.replaceAll("'", "&apos;");
-		str = str.replaceAll("\"", "&quot;");
-		return str;
+		return XML_ENCODER.replace(str);
 	}
 
 	/**
@@ -248,16 +384,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String xmlDecode(String str) {
-		if (isEmpty(str)) {
-			return str;
-		}
-
-		str = str.replaceAll("&lt;", "<");
-		str = str.replaceAll("&gt;", ">");
-		str = str.replaceAll("&apos;", "'");
-		str = str.replaceAll("&quot;", "\"");
-		str = str.replaceAll("&amp;", "&");
-		return str;
+		return XML_DECODER.replace(str);
 	}
 
 	/**
@@ -266,15 +393,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String htmlEncode(String str) {
-		if (isEmpty(str)) {
-			return str;
-		}
-
-		str = str.replaceAll("&", "&amp;");
-		str = str.replaceAll("<", "&lt;");
-		str = str.replaceAll(">", "&gt;");
-		str = str.replaceAll("\"", "&quot;");
-		return str;
+		return HTML_ENCODER.replace(str);
 	}
 
 	/**
@@ -283,15 +402,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String htmlDecode(String str) {
-		if (isEmpty(str)) {
-			return str;
-		}
-
-		str = str.replaceAll("&lt;", "<");
-		str = str.replaceAll("&gt;", ">");
-		str = str.replaceAll("&quot;", "\"");
-		str = str.replaceAll("&amp;", "&");
-		return str;
+		return HTML_DECODER.replace(str);
 	}
 
 	/**
@@ -300,18 +411,7 @@ public class StringUtils {
 	 * @return
 	 */
 	public static String toHtmlText(String str) {
-		if (isEmpty(str)) {
-			return str;
-		}
-
-		str = str.replaceAll("<", "&lt;");
-		str = str.replaceAll(">", "&gt;");
-		str = str.replaceAll("\"", "&quot;");
-		str = str.replaceAll(" ", "&nbsp;"); // 空格
-		str = str.replaceAll("\t", "&nbsp;&nbsp;&nbsp;&nbsp;"); // TAB
-		str = str.replaceAll("\r\n", "<br/>"); // 回车
-		str = str.replaceAll("\n", "<br/>");
-		return str;
+		return HTML_TEXT_ENCODER.replace(str);
 	}
 
 	/**
@@ -328,6 +428,17 @@ public class StringUtils {
 		return ascii;
 	}
 
+	/**
+	 * convert chars of [from, to) to ascii, same as toAscii(new String(a, from, to - from)) (vectorizable)
+	 * @param a
+	 * @param from inclusive
+	 * @param to exclusive
+	 * @return
+	 */
+	public static int toAscii(char[] a, int from, int to) {
+		return StringKernels.sum(a, from, to);
+	}
+
 	public static String toEllipsis(String str, int length) {
 		return toEllipsis(str, length, "...");
 	}
@@ -340,6 +451,20 @@ public class StringUtils {
 		}
 	}
 
+	/**
+	 * lazy view of toEllipsis(str, length), nothing is copied
+	 * @param str
+	 * @param length
+	 * @return
+	 */
+	public static CharView ellipsisView(CharSequence str, int length) {
+		return CharView.ellipsis(str, length, "...");
+	}
+
+	public static CharView ellipsisView(CharSequence str, int length, String ellipsis) {
+		return CharView.ellipsis(str, length, ellipsis);
+	}
+
 	public static String toFixedLength(String str, int length, char fillChar) {
 		return toFixedLength(str, length, -1, fillChar);
 	}
@@ -364,16 +489,360 @@ public class StringUtils {
 			}
 		}
 		else {
-			String fillStr = "";
-			for (int i = 0; i < length - str.length(); i++) {
-				fillStr += fillChar;
+			char buf[] = new char[length];
+			writeFixedLength(buf, 0, str, length, direction, fillChar);
+			return new String(buf);
+		}
+	}
+
+	public static CharView fixedLengthView(CharSequence str, int length, char fillChar) {
+		return CharView.fixedLength(str, length, -1, fillChar);
+	}
+
+	/**
+	 * lazy view of toFixedLength(str, length, direction, fillChar), nothing is copied
+	 * @param str
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return
+	 */
+	public static CharView fixedLengthView(CharSequence str, int length, int direction, char fillChar) {
+		return CharView.fixedLength(str, length, direction, fillChar);
+	}
+
+	public static String toFixedLength(long value, int length, char fillChar) {
+		return toFixedLength(value, length, -1, fillChar);
+	}
+
+	/**
+	 * get fixed length string of the number, same as toFixedLength(String.valueOf(value), ...)
+	 * @param value
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return
+	 */
+	public static String toFixedLength(long value, int length, int direction, char fillChar) {
+		char buf[] = new char[length];
+		writeFixedLength(buf, 0, value, length, direction, fillChar);
+		return new String(buf);
+	}
+
+	/**
+	 * append fixed length string to the builder, without intermediate strings
+	 * @param sb
+	 * @param str
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return sb
+	 */
+	public static StringBuilder appendFixedLength(StringBuilder sb, CharSequence str, int length, int direction, char fillChar) {
+		int strLen = str.length();
+		if (strLen > length) {
+			return direction < 0 ? sb.append(str, 0, length) : sb.append(str, strLen - length, strLen);
+		}
+		sb.ensureCapacity(sb.length() + length);
+		if (direction < 0) {
+			appendFill(sb, fillChar, length - strLen);
+			sb.append(str);
+		} else {
+			sb.append(str);
+			appendFill(sb, fillChar, length - strLen);
+		}
+		return sb;
+	}
+
+	public static StringBuilder appendFixedLength(StringBuilder sb, int value, int length, int direction, char fillChar) {
+		return appendFixedLength(sb, (long) value, length, direction, fillChar);
+	}
+
+	/**
+	 * append fixed length digits of the number to the builder, without String.valueOf
+	 * @param sb
+	 * @param value
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return sb
+	 */
+	public static StringBuilder appendFixedLength(StringBuilder sb, long value, int length, int direction, char fillChar) {
+		if (length <= 0) {
+			return sb;
+		}
+		sb.ensureCapacity(sb.length() + length);
+		int size = stringSize(value);
+		if (size <= length) {
+			if (direction < 0) {
+				appendFill(sb, fillChar, length - size);
+			}
+			if (value < 0) {
+				sb.append('-');
+			}
+			appendDigits(sb, value, value < 0 ? size - 1 : size);
+			if (direction >= 0) {
+				appendFill(sb, fillChar, length - size);
+			}
+		}
+		else if (direction < 0) {
+			// 保留高位：舍去低位数字
+			if (value < 0) {
+				sb.append('-');
 			}
+			appendDigits(sb, dropDigits(value, size - length), value < 0 ? length - 1 : length);
+		}
+		else {
+			// 保留低位：不含符号
+			appendDigits(sb, value, length);
+		}
+		return sb;
+	}
+
+	/**
+	 * write fixed length string into the buffer
+	 * @param buf
+	 * @param offset
+	 * @param str
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return the offset after the written chars: offset + length
+	 */
+	public static int writeFixedLength(char[] buf, int offset, CharSequence str, int length, int direction, char fillChar) {
+		int strLen = str.length();
+		int from = 0;
+		int to = strLen;
+		int pos = offset;
+		if (strLen > length) {
 			if (direction < 0) {
-				return fillStr + str;
+				to = length;
 			} else {
-				return str + fillStr;
+				from = strLen - length;
 			}
 		}
+		else if (direction < 0) {
+			Arrays.fill(buf, pos, pos + length - strLen, fillChar);
+			pos += length - strLen;
+		}
+		if (str instanceof String) {
+			((String) str).getChars(from, to, buf, pos);
+		} else {
+			for (int i = from; i < to; i++) {
+				buf[pos + i - from] = str.charAt(i);
+			}
+		}
+		pos += to - from;
+		Arrays.fill(buf, pos, offset + length, fillChar);
+		return offset + length;
+	}
+
+	public static int writeFixedLength(char[] buf, int offset, int value, int length, int direction, char fillChar) {
+		return writeFixedLength(buf, offset, (long) value, length, direction, fillChar);
+	}
+
+	/**
+	 * write fixed length digits of the number into the buffer, without String.valueOf
+	 * @param buf
+	 * @param offset
+	 * @param value
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return the offset after the written chars: offset + length
+	 */
+	public static int writeFixedLength(char[] buf, int offset, long value, int length, int direction, char fillChar) {
+		if (length <= 0) {
+			return offset;
+		}
+		int size = stringSize(value);
+		int pos = offset;
+		if (size <= length) {
+			if (direction < 0) {
+				Arrays.fill(buf, pos, pos + length - size, fillChar);
+				pos += length - size;
+			}
+			if (value < 0) {
+				buf[pos++] = '-';
+			}
+			pos = writeDigits(buf, pos, value, value < 0 ? size - 1 : size);
+			Arrays.fill(buf, pos, offset + length, fillChar);
+		}
+		else if (direction < 0) {
+			if (value < 0) {
+				buf[pos++] = '-';
+			}
+			writeDigits(buf, pos, dropDigits(value, size - length), value < 0 ? length - 1 : length);
+		}
+		else {
+			writeDigits(buf, pos, value, length);
+		}
+		return offset + length;
+	}
+
+	/**
+	 * write fixed length string into the byte buffer, chars beyond ISO-8859-1 are written as '?'
+	 * @param buf
+	 * @param str
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return buf
+	 * @throws BufferOverflowException if fewer than length bytes remain, nothing is written
+	 */
+	public static ByteBuffer writeFixedLength(ByteBuffer buf, CharSequence str, int length, int direction, char fillChar) {
+		if (length > 0 && buf.remaining() < length) {
+			throw new BufferOverflowException();
+		}
+		int strLen = str.length();
+		int from = 0;
+		int to = strLen;
+		if (strLen > length) {
+			if (direction < 0) {
+				to = length;
+			} else {
+				from = strLen - length;
+			}
+		}
+		else if (direction < 0) {
+			putFill(buf, fillChar, length - strLen);
+		}
+		for (int i = from; i < to; i++) {
+			buf.put(toLatin1(str.charAt(i)));
+		}
+		if (strLen < length && direction >= 0) {
+			putFill(buf, fillChar, length - strLen);
+		}
+		return buf;
+	}
+
+	public static ByteBuffer writeFixedLength(ByteBuffer buf, int value, int length, int direction, char fillChar) {
+		return writeFixedLength(buf, (long) value, length, direction, fillChar);
+	}
+
+	/**
+	 * write fixed length digits of the number into the byte buffer, without String.valueOf
+	 * @param buf
+	 * @param value
+	 * @param length
+	 * @param direction <0: from front; >0: from behind;
+	 * @param fillChar fill the char in the lack of bit
+	 * @return buf
+	 * @throws BufferOverflowException if fewer than length bytes remain, nothing is written
+	 */
+	public static ByteBuffer writeFixedLength(ByteBuffer buf, long value, int length, int direction, char fillChar) {
+		if (length <= 0) {
+			return buf;
+		}
+		if (buf.remaining() < length) {
+			throw new BufferOverflowException();
+		}
+		int size = stringSize(value);
+		if (size <= length) {
+			if (direction < 0) {
+				putFill(buf, fillChar, length - size);
+			}
+			if (value < 0) {
+				buf.put((byte) '-');
+			}
+			putDigits(buf, value, value < 0 ? size - 1 : size);
+			if (direction >= 0) {
+				putFill(buf, fillChar, length - size);
+			}
+		}
+		else if (direction < 0) {
+			if (value < 0) {
+				buf.put((byte) '-');
+			}
+			putDigits(buf, dropDigits(value, size - length), value < 0 ? length - 1 : length);
+		}
+		else {
+			putDigits(buf, value, length);
+		}
+		return buf;
+	}
+
+	private static final long[] POW10 = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+			1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+			1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L };
+
+	/**
+	 * length of String.valueOf(value)
+	 */
+	static int stringSize(long value) {
+		int size = value < 0 ? 2 : 1;
+		// 负数计算：避免Long.MIN_VALUE溢出
+		long neg = value < 0 ? value : -value;
+		for (int i = 1; i < POW10.length && neg <= -POW10[i]; i++) {
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * drop the lowest count digits of the value
+	 */
+	private static long dropDigits(long value, int count) {
+		return count < POW10.length ? value / POW10[count] : 0L;
+	}
+
+	/**
+	 * append the lowest count digits of the absolute value, leading zeros included.
+	 * digits are emitted right to left into the reserved slot, one division per digit
+	 */
+	private static void appendDigits(StringBuilder sb, long value, int count) {
+		int pos = sb.length() + count;
+		sb.setLength(pos);
+		// 负数计算：避免Long.MIN_VALUE溢出
+		long neg = value < 0 ? value : -value;
+		while (count-- > 0) {
+			long q = neg / 10;
+			sb.setCharAt(--pos, (char) ('0' + (q * 10 - neg)));
+			neg = q;
+		}
+	}
+
+	private static int writeDigits(char[] buf, int offset, long value, int count) {
+		int pos = offset + count;
+		long neg = value < 0 ? value : -value;
+		while (pos > offset) {
+			long q = neg / 10;
+			buf[--pos] = (char) ('0' + (q * 10 - neg));
+			neg = q;
+		}
+		return offset + count;
+	}
+
+	/**
+	 * the caller has checked the remaining bytes
+	 */
+	private static void putDigits(ByteBuffer buf, long value, int count) {
+		int start = buf.position();
+		int pos = start + count;
+		long neg = value < 0 ? value : -value;
+		while (pos > start) {
+			long q = neg / 10;
+			buf.put(--pos, (byte) ('0' + (q * 10 - neg)));
+			neg = q;
+		}
+		buf.position(start + count);
+	}
+
+	private static void appendFill(StringBuilder sb, char fillChar, int count) {
+		for (int i = 0; i < count; i++) {
+			sb.append(fillChar);
+		}
+	}
+
+	private static void putFill(ByteBuffer buf, char fillChar, int count) {
+		byte b = toLatin1(fillChar);
+		for (int i = 0; i < count; i++) {
+			buf.put(b);
+		}
+	}
+
+	static byte toLatin1(char c) {
+		return c <= 0xFF ? (byte) c : (byte) '?';
 	}
 
 	/**
@@ -386,14 +855,20 @@ public class StringUtils {
 			return str;
 		}
 		
-		int length = str.length();
-		char buf[] = new char[length];
-		for (int i = 0; i < length; i++) {
-			buf[i] = str.charAt(length - 1 - i);
-		}
+		char buf[] = str.toCharArray();
+		StringKernels.reverse(buf, 0, buf.length);
 		return new String(buf);
 	}
 
+	/**
+	 * lazy view of toReverse(str), nothing is copied
+	 * @param str
+	 * @return null if str is null
+	 */
+	public static CharView reverseView(CharSequence str) {
+		return str == null ? null : CharView.reverse(str);
+	}
+
     public static String randomString(int length) {
     	return randomString(length, null);
     }